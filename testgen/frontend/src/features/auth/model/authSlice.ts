@@ -20,12 +20,21 @@ const initialState: AuthState = {
   user: null,
 };
 
+// auth-service answers 429 when its password hashing queue is full
+const THROTTLED_MESSAGE = 'Сервер перегружен, попробуйте ещё раз через несколько секунд';
+
+const isThrottled = (error: unknown) =>
+  axios.isAxiosError(error) && error.response?.status === 429;
+
 export const registerUser = createAsyncThunk(
   'auth/register',
   async (credentials: { username: string; password: string, role: string }, { rejectWithValue }) => {
     try {
       await axios.post('http://localhost:8080/api/auth/register', credentials);
     } catch (error) {
+      if (isThrottled(error)) {
+        return rejectWithValue(THROTTLED_MESSAGE);
+      }
       return rejectWithValue('Invalid credentials');
     }
   }
@@ -44,6 +53,9 @@ export const login = createAsyncThunk(
       Cookies.set('token', response.data.token);
       return user;
     } catch (error) {
+      if (isThrottled(error)) {
+        return rejectWithValue(THROTTLED_MESSAGE);
+      }
       return rejectWithValue('Invalid credentials');
     }
   }
@@ -99,8 +99,12 @@ export const fetchTest = createAsyncThunk(
 export const saveAnswer = createAsyncThunk(
   'testSession/saveAnswer',
   async (
-    { sessionId, answers }: {
+    { sessionId, answer, answers }: {
       sessionId: string;
+      answer: {
+        questionId: number;
+        selectedOption: number;
+      };
       answers: Array<{
         questionId: number;
         selectedOption: number;
@@ -112,9 +116,10 @@ export const saveAnswer = createAsyncThunk(
     try {
       const token = Cookies.get("token");
 
-      await axios.put(
-        `http://localhost:8080/api/test-sessions/${sessionId}`,
-        { answers },
+      // Send only the changed answer, the server merges it into the session
+      await axios.patch(
+        `http://localhost:8080/api/test-sessions/${sessionId}/answers`,
+        { questionId: answer.questionId, selectedOption: answer.selectedOption },
         {
           headers: {
             Authorization: `${token}`,
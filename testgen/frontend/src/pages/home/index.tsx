@@ -9,7 +9,6 @@ import {
   CardContent,
   CardActions,
   Button,
-  Pagination,
   CircularProgress,
   Alert,
 } from '@mui/material';
@@ -23,13 +22,22 @@ interface Lecture {
   description: string;
 }
 
-interface PageResponse<T> {
-  content: T[];
-  totalElements: number;
-  totalPages: number;
-  size: number;
-  number: number;
-}
+const PAGE_SIZE = 10;
+
+// Lists are paged by id: the next page starts after the last loaded lecture
+const fetchLecturePage = async (url: string, after?: string) => {
+  const token = Cookies.get('token');
+  const params = new URLSearchParams({ limit: String(PAGE_SIZE) });
+  if (after) {
+    params.set('after', after);
+  }
+  const response = await axios.get<Lecture[]>(`${url}?${params}`, {
+    headers: {
+      Authorization: `${token}`,
+    },
+  });
+  return response.data;
+};
 
 const HomePage: React.FC = () => {
   const navigate = useNavigate();
@@ -38,25 +46,16 @@ const HomePage: React.FC = () => {
   const [lectures, setLectures] = useState<Lecture[]>([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
-  const [page, setPage] = useState(1);
-  const [totalPages, setTotalPages] = useState(1);
+  const [hasMoreTeacherLectures, setHasMoreTeacherLectures] = useState(false);
+  const [hasMoreLectures, setHasMoreLectures] = useState(false);
 
   useEffect(() => {
     const fetchTeacherLectures = async () => {
       if (user?.role === "TEACHER") {
         try {
-          const token = Cookies.get('token');
-
-          const response = await axios.get<Lecture[]>(
-            `http://localhost:8080/api/lectures/teacher/${user.id}`,
-            {
-              headers: {
-                Authorization: `${token}`,
-              },
-            }
-          );
-
-          setTeacherLectures(response.data);
+          const data = await fetchLecturePage(`http://localhost:8080/api/lectures/teacher/${user.id}`);
+          setTeacherLectures(data);
+          setHasMoreTeacherLectures(data.length === PAGE_SIZE);
         } catch (err) {
           setError('Failed to load lectures');
         } finally {
@@ -71,19 +70,9 @@ const HomePage: React.FC = () => {
   useEffect(() => {
     const fetchLectures = async () => {
       try {
-        const token = Cookies.get('token');
-
-        const response = await axios.get<PageResponse<Lecture>>(
-          `http://localhost:8080/api/lectures?page=${page - 1}&size=10`,
-          {
-            headers: {
-              Authorization: `${token}`,
-            },
-          }
-        );
-
-        setLectures(response.data.content);
-        setTotalPages(response.data.totalPages);
+        const data = await fetchLecturePage('http://localhost:8080/api/lectures');
+        setLectures(data);
+        setHasMoreLectures(data.length === PAGE_SIZE);
       } catch (err) {
         setError('Failed to load lectures');
       } finally {
@@ -92,10 +81,28 @@ const HomePage: React.FC = () => {
     };
 
     fetchLectures();
-  }, [page]);
+  }, []);
+
+  const handleLoadMoreTeacherLectures = async () => {
+    try {
+      const last = teacherLectures[teacherLectures.length - 1];
+      const data = await fetchLecturePage(`http://localhost:8080/api/lectures/teacher/${user?.id}`, last?.id);
+      setTeacherLectures(prev => [...prev, ...data]);
+      setHasMoreTeacherLectures(data.length === PAGE_SIZE);
+    } catch (err) {
+      setError('Failed to load lectures');
+    }
+  };
 
-  const handlePageChange = (event: React.ChangeEvent<unknown>, value: number) => {
-    setPage(value);
+  const handleLoadMoreLectures = async () => {
+    try {
+      const last = lectures[lectures.length - 1];
+      const data = await fetchLecturePage('http://localhost:8080/api/lectures', last?.id);
+      setLectures(prev => [...prev, ...data]);
+      setHasMoreLectures(data.length === PAGE_SIZE);
+    } catch (err) {
+      setError('Failed to load lectures');
+    }
   };
 
   if (isLoading) {
@@ -174,6 +181,13 @@ const HomePage: React.FC = () => {
                 </Typography>
               </Box>
             }
+            {hasMoreTeacherLectures && (
+              <Box display="flex" justifyContent="center" mt={4}>
+                <Button variant="outlined" onClick={handleLoadMoreTeacherLectures}>
+                  Показать ещё
+                </Button>
+              </Box>
+            )}
           </Box>
         )}
         <Box>
@@ -213,14 +227,13 @@ const HomePage: React.FC = () => {
               </Card>
             ))}
           </Box>
-          <Box display="flex" justifyContent="center" mt={4}>
-            <Pagination
-              count={totalPages}
-              page={page}
-              onChange={handlePageChange}
-              color="primary"
-            />
-          </Box>
+          {hasMoreLectures && (
+            <Box display="flex" justifyContent="center" mt={4}>
+              <Button variant="outlined" onClick={handleLoadMoreLectures}>
+                Показать ещё
+              </Button>
+            </Box>
+          )}
         </Box>
       </Box>
     </Container>
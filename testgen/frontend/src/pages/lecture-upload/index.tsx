@@ -13,8 +13,6 @@ import { useForm } from 'react-hook-form';
 import { yupResolver } from '@hookform/resolvers/yup';
 import * as yup from 'yup';
 import axios from 'axios';
-import { useSelector } from 'react-redux';
-import { RootState } from '../../shared/lib/store';
 
 const schema = yup.object().shape({
   title: yup.string().required('Title is required'),
@@ -23,7 +21,6 @@ const schema = yup.object().shape({
 
 export const LectureUploadPage = () => {
   const navigate = useNavigate();
-  const { user } = useSelector((state: RootState) => state.auth);
   const [file, setFile] = useState<File | null>(null);
   const [isUploading, setIsUploading] = useState(false);
   const [error, setError] = useState<string | null>(null);
@@ -58,27 +55,32 @@ export const LectureUploadPage = () => {
         .find((row) => row.startsWith('token='))
         ?.split('=')[1];
 
-      const formData = new FormData();
-      formData.append('file', file);
-      formData.append('lecture', JSON.stringify({
-        ...data,
-        teacherId: user?.id
-      }));
-
+      // The file is sent as the raw request body and streamed to storage;
+      // the author is taken from the token on the server side
       const response = await axios.post(
-        'http://localhost:8080/api/lectures',
-        formData,
+        'http://localhost:8080/api/lectures/stream',
+        file,
         {
+          params: {
+            title: data.title,
+            description: data.description,
+            fileName: file.name,
+          },
           headers: {
             Authorization: `${token}`,
-            'Content-Type': 'multipart/form-data',
+            'Content-Type': file.type || 'application/octet-stream',
           },
         }
       );
 
       navigate(`/lecture/${response.data.id}`);
     } catch (err) {
-      setError('Failed to upload lecture. Please try again.');
+      // 503: all upload buffers on the server are busy
+      if (axios.isAxiosError(err) && err.response?.status === 503) {
+        setError('Server is busy with other uploads. Please try again in a few seconds.');
+      } else {
+        setError('Failed to upload lecture. Please try again.');
+      }
     } finally {
       setIsUploading(false);
     }
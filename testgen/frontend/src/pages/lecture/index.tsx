@@ -31,6 +31,8 @@ interface Lecture {
   title: string,
   description: string,
   filePath: string,
+  processingJobId?: string,
+  processingQueuedAt?: string,
   fileName: string,
   teacherId: number,
   createdAt: Date,
@@ -61,19 +63,27 @@ interface TestSession {
   studentId: number,
   startTime: Date,
   endTime: Date,
-  answers: TestSessionAnswer[],
+  // Lists return sessions without answers, they are loaded on demand
+  answers?: TestSessionAnswer[],
   score: number,
   finished: boolean;
 }
 
+const SESSIONS_PAGE_SIZE = 50;
+// How long a job queued on upload may stay unknown to the processing service before we give up on it
+const QUEUED_JOB_TIMEOUT_MS = 5 * 60 * 1000;
+
 export const LecturePage = () => {
   const { id } = useParams<{ id: string }>();
   const navigate = useNavigate();
   const { user } = useSelector((state: RootState) => state.auth);
   const [lecture, setLecture] = useState<Lecture | null>(null);
   const [testSessions, setTestSessions] = useState<TestSession[]>([]);
+  const [sessionAnswers, setSessionAnswers] = useState<Record<number, TestSessionAnswer[]>>({});
+  const [hasMoreSessions, setHasMoreSessions] = useState(false);
   const [isProcessing, setIsProcessing] = useState<boolean>(false);
   const [test, setTest] = useState<Test | null>(null)
+  const [testChecked, setTestChecked] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
   const userId = user?.id;
@@ -82,6 +92,7 @@ export const LecturePage = () => {
 
 
   useEffect(() => {
+    setTestChecked(false);
     const fetchLecture = async () => {
       try {
         const token = Cookies.get("token")
@@ -120,6 +131,8 @@ export const LecturePage = () => {
         setTest(testResponse.data);
       } catch (err) {
         console.error(err)
+      } finally {
+        setTestChecked(true);
       }
     }
   }, [lecture?.id])
@@ -128,20 +141,23 @@ export const LecturePage = () => {
     handleFetchTest();
   }, [lecture])
 
-  const handleFetchTestSessions = useCallback(async () => {
+  const handleFetchTestSessions = useCallback(async (after?: number) => {
     if (test && user) {
       try {
         if (user.role === 'TEACHER') {
+          // Sessions are paged by id, the next page starts after the last loaded session
           const token = Cookies.get("token")
-          const sessionsResponse = await axios.get(
+          const sessionsResponse = await axios.get<TestSession[]>(
             `http://localhost:8080/api/test-sessions/test/${test.id}`,
             {
+              params: { limit: SESSIONS_PAGE_SIZE, after },
               headers: {
                 Authorization: `${token}`,
               },
             }
           );
-          setTestSessions(sessionsResponse.data);
+          setTestSessions(prev => after ? [...prev, ...sessionsResponse.data] : sessionsResponse.data);
+          setHasMoreSessions(sessionsResponse.data.length === SESSIONS_PAGE_SIZE);
         }
         else if (user.role === 'STUDENT') {
           const token = Cookies.get("token")
@@ -161,27 +177,92 @@ export const LecturePage = () => {
     }
   }, [test, user])
 
+  const handleLoadSessionAnswers = useCallback(async (sessionId: number) => {
+    if (sessionAnswers[sessionId]) {
+      return;
+    }
+    try {
+      const token = Cookies.get("token")
+      const sessionResponse = await axios.get(
+        `http://localhost:8080/api/test-sessions/${sessionId}`,
+        {
+          headers: {
+            Authorization: `${token}`,
+          },
+        }
+      );
+      setSessionAnswers(prev => ({ ...prev, [sessionId]: sessionResponse.data.answers ?? [] }));
+    } catch (err) {
+      console.error(err)
+    }
+  }, [sessionAnswers])
+
   useEffect(() => {
     handleFetchTestSessions();
   }, [test, user])
 
+  // queuedSince: when the server queued the job on upload; it stays unknown (404)
+  // to the processing service until a worker picks it up
+  const pollJob = useCallback((jobId: string, queuedSince?: number) => {
+    const token = Cookies.get("token");
+    const poll = async () => {
+      try {
+        const statusResponse = await axios.get(
+          `http://localhost:8080/api/process/jobs/${jobId}`,
+          { headers: { Authorization: `${token}` } }
+        );
+        const status = statusResponse.data.status;
+        if (status === 'DONE') {
+          setTimeout(handleFetchTest, 1000);
+        } else if (status === 'FAILED') {
+          setIsProcessing(false);
+          console.error(statusResponse.data.error);
+        } else {
+          setTimeout(poll, 2000);
+        }
+      } catch (err) {
+        if (queuedSince !== undefined && axios.isAxiosError(err) && err.response?.status === 404
+            && Date.now() - queuedSince < QUEUED_JOB_TIMEOUT_MS) {
+          setTimeout(poll, 2000);
+          return;
+        }
+        // Unknown job (evicted or service restarted) or network error: stop polling
+        setIsProcessing(false);
+        console.error(err);
+      }
+    };
+    // A queued job is checked right away: a long-gone one must not block the button
+    setTimeout(poll, queuedSince !== undefined ? 0 : 2000);
+  }, [handleFetchTest])
+
+  // Generation queued on upload: follow it instead of offering to start a second one.
+  // Only while the lecture has no test yet, and only for a job that can still be queued
+  useEffect(() => {
+    if (!testChecked || test || !lecture?.processingJobId || !lecture.processingQueuedAt) {
+      return;
+    }
+    const queuedSince = Date.parse(lecture.processingQueuedAt);
+    setIsProcessing(true);
+    pollJob(lecture.processingJobId, queuedSince);
+  }, [testChecked, lecture?.processingJobId])
+
   const handleCreateTestByLecture = useCallback(async () => {
     if (lecture) {
       try {
         setIsProcessing(true);
         const token = Cookies.get("token");
-        await axios.post(
+        const jobResponse = await axios.post(
           `http://localhost:8080/api/process`,
           { lectureId: lecture.id, filePath: lecture.filePath },
           { headers: { Authorization: `${token}` } }
         );
-        setTimeout(handleFetchTest, 1000);
+        pollJob(jobResponse.data.jobId);
       } catch (err) {
         setIsProcessing(false);
         console.error(err)
       }
     }
-  }, [lecture])
+  }, [lecture, pollJob])
 
   const handleStartTest = useCallback(() => {
     if (test) navigate(`/test-session/${test?.id}`);
@@ -214,7 +295,7 @@ export const LecturePage = () => {
 
       <Box sx={{ mt: "10px", mb: "20px" }}>
         {lecture &&
-          <Link href={`http://localhost:9000/lectures/${lecture.filePath}`} target='_blank'>
+          <Link href={`http://localhost:8080/api/lectures/${lecture.id}/file`} target='_blank'>
             Скачать файл лекции
           </Link>
         }
@@ -327,7 +408,15 @@ export const LecturePage = () => {
                         </Box>
                       </Box>
                     </ListItem>
-                    <Accordion elevation={0} sx={{ bgcolor: 'transparent' }}>
+                    <Accordion
+                      elevation={0}
+                      sx={{ bgcolor: 'transparent' }}
+                      onChange={(_, expanded) => {
+                        if (expanded && !session.answers) {
+                          handleLoadSessionAnswers(session.id);
+                        }
+                      }}
+                    >
                       <AccordionSummary
                         expandIcon={<ExpandMoreIcon />}
                         sx={{ px: 2 }}
@@ -339,7 +428,7 @@ export const LecturePage = () => {
                       <AccordionDetails sx={{ px: 2 }}>
                         <Stack spacing={2}>
                           {test?.questions.map((question, index) => {
-                            const answer = session.answers.find(a => a.questionId === index);
+                            const answer = (session.answers ?? sessionAnswers[session.id])?.find(a => a.questionId === index);
                             return (
                               <Box key={index} sx={{ borderLeft: 1, borderColor: 'divider', pl: 2 }}>
                                 <Typography variant="body2" color="text.secondary" sx={{ mb: 1 }}>
@@ -392,6 +481,16 @@ export const LecturePage = () => {
                   </ListItem>
                 )}
               </List>
+              {hasMoreSessions && (
+                <Box display="flex" justifyContent="center">
+                  <Button
+                    variant="outlined"
+                    onClick={() => handleFetchTestSessions(testSessions[testSessions.length - 1]?.id)}
+                  >
+                    Показать ещё
+                  </Button>
+                </Box>
+              )}
             </CardContent>
           </Card>
         )
@@ -410,11 +509,7 @@ export const LecturePage = () => {
       onClick={async () => {
         try {
           await axios.delete(`http://localhost:8080/api/lectures/${lecture.id}/secure`, {
-            headers: {
-              Authorization: `Bearer ${token}`,
-              'X-User-Id': userId,
-              'X-User-Role': userRole,
-            },
+            headers: { Authorization: `${token}` },
           });
           alert('Лекция удалена');
           navigate('/');
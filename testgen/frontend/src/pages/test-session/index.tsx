@@ -73,6 +73,7 @@ const TestSessionPage: React.FC = () => {
 
       dispatch(saveAnswer({
         sessionId: currentSession.id,
+        answer: answerData,
         answers: newAnswers
       }));
     }
@@ -0,0 +1,126 @@
+package com.testgen.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Открытые ключи auth-service (/api/auth/keys), выбираемые по kid из заголовка токена.
+ * Набор обновляется в фоне; auth-service публикует новый ключ заранее,
+ * поэтому на запросах сеть не используется.
+ */
+@Slf4j
+@Component
+public class JwksKeyResolver extends SigningKeyResolverAdapter {
+
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(5);
+
+    private final WebClient webClient;
+    private final String jwksUri;
+    private final Duration refreshInterval;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private final AtomicReference<Instant> lastRefresh = new AtomicReference<>(Instant.EPOCH);
+    private Disposable schedule;
+
+    public JwksKeyResolver(WebClient.Builder loadBalancedWebClientBuilder,
+                           @Value("${gateway.auth.jwks-uri:http://auth-service/api/auth/keys}") String jwksUri,
+                           @Value("${gateway.auth.jwks-refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.jwksUri = jwksUri;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+    }
+
+    @PostConstruct
+    void start() {
+        schedule = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        PublicKey key = kid == null ? null : keys.get(kid);
+        if (key == null) {
+            // Возможно, шлюз ещё не получил набор ключей — обновляем вне очереди
+            refreshSoon();
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key;
+    }
+
+    private void refreshSoon() {
+        Instant previous = lastRefresh.get();
+        if (Instant.now().isAfter(previous.plus(MIN_REFRESH_INTERVAL))
+                && lastRefresh.compareAndSet(previous, Instant.now())) {
+            refresh().subscribe();
+        }
+    }
+
+    private Mono<Void> refresh() {
+        lastRefresh.set(Instant.now());
+        return webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .doOnNext(body -> keys = parse(body))
+                .doOnError(e -> log.warn("Failed to load signing keys from {}: {}", jwksUri, e.toString()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private static Map<String, PublicKey> parse(JsonNode body) {
+        Map<String, PublicKey> result = new HashMap<>();
+        for (JsonNode jwk : body.path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText())) {
+                continue;
+            }
+            try {
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                        unsigned(jwk.path("n").asText()),
+                        unsigned(jwk.path("e").asText()));
+                result.put(jwk.path("kid").asText(), KeyFactory.getInstance("RSA").generatePublic(spec));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping malformed signing key {}", jwk.path("kid").asText(), e);
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
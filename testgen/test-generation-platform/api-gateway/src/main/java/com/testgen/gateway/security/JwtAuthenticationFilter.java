@@ -0,0 +1,173 @@
+package com.testgen.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Проверяет JWT на входе и передаёт сервисам проверенные X-User-Id / X-User-Role.
+ * Разобранные claims кэшируются по хэшу токена до истечения его срока,
+ * поэтому подпись проверяется один раз на токен, а не на каждый запрос.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_COOKIE = "token";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
+    private final JwtParser parser;
+    private final List<String> publicPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtAuthenticationFilter(JwksKeyResolver keyResolver,
+                                   @Value("${gateway.auth.public-paths:/api/auth/**}") List<String> publicPaths,
+                                   @Value("${gateway.auth.cache.max-size:100000}") long maxSize,
+                                   MeterRegistry meterRegistry) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyResolver)
+                .build();
+        this.publicPaths = publicPaths;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-claims");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        // Заголовки личности от клиента не принимаются никогда
+        ServerHttpRequest.Builder mutated = request.mutate().headers(headers -> {
+            headers.remove(USER_ID_HEADER);
+            headers.remove(USER_ROLE_HEADER);
+            headers.remove(USER_NAME_HEADER);
+        });
+        if (HttpMethod.OPTIONS.equals(request.getMethod()) || isPublic(request.getPath().value())) {
+            return chain.filter(exchange.mutate().request(mutated.build()).build());
+        }
+
+        VerifiedToken token = verify(authorization(request));
+        if (token == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        mutated.headers(headers -> {
+            headers.set(USER_ID_HEADER, String.valueOf(token.userId()));
+            headers.set(USER_ROLE_HEADER, token.role());
+            headers.set(USER_NAME_HEADER, token.username());
+        });
+        return chain.filter(exchange.mutate().request(mutated.build()).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private boolean isPublic(String path) {
+        return publicPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static String authorization(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        // Обычные ссылки (например, на файл лекции) заголовок не передают — для чтения
+        // принимаем токен из cookie фронтенда; изменяющие запросы только с заголовком
+        if (authorization == null
+                && (HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))) {
+            HttpCookie cookie = request.getCookies().getFirst(TOKEN_COOKIE);
+            return cookie != null ? cookie.getValue() : null;
+        }
+        return authorization;
+    }
+
+    private VerifiedToken verify(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            return null;
+        }
+        // Фронтенд присылает токен как с префиксом Bearer, так и без него
+        String token = authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : authorization;
+
+        String cacheKey = sha256(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached.expiresAt().isAfter(Instant.now()) ? cached : null;
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = claims.get(USER_ID_CLAIM, Long.class);
+            String role = claims.get(ROLE_CLAIM, String.class);
+            if (userId == null || role == null || claims.getExpiration() == null) {
+                return null;
+            }
+            VerifiedToken verified = new VerifiedToken(userId, role, claims.getSubject(),
+                    claims.getExpiration().toInstant());
+            verifiedTokens.put(cacheKey, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
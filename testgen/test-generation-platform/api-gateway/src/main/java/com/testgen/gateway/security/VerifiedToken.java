@@ -0,0 +1,13 @@
+package com.testgen.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Проверенные данные токена, которые шлюз передаёт сервисам.
+ */
+public record VerifiedToken(
+    Long userId,
+    String role,
+    String username,
+    Instant expiresAt
+) {}
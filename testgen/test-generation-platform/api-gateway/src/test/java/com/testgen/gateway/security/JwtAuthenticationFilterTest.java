@@ -0,0 +1,153 @@
+package com.testgen.gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final KeyPair KEYS = rsaKeyPair();
+
+    private final JwksKeyResolver keyResolver = mock(JwksKeyResolver.class);
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(keyResolver.resolveSigningKey(any(JwsHeader.class), any(Claims.class))).thenReturn(KEYS.getPublic());
+        filter = new JwtAuthenticationFilter(keyResolver, List.of("/api/auth/**"), 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void stripsClientIdentityHeadersOnPublicPaths() {
+        filter.filter(exchange(MockServerHttpRequest.post("/api/auth/login")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, "1")
+                .header(JwtAuthenticationFilter.USER_ROLE_HEADER, "ADMIN")
+                .header(JwtAuthenticationFilter.USER_NAME_HEADER, "admin")), chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers).doesNotContainKeys(JwtAuthenticationFilter.USER_ID_HEADER,
+                JwtAuthenticationFilter.USER_ROLE_HEADER, JwtAuthenticationFilter.USER_NAME_HEADER);
+    }
+
+    @Test
+    void replacesClientIdentityHeadersWithTokenClaims() {
+        filter.filter(exchange(MockServerHttpRequest.get("/api/lectures/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(5L, "STUDENT", "alice"))
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, "999")
+                .header(JwtAuthenticationFilter.USER_ROLE_HEADER, "ADMIN")), chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers.get(JwtAuthenticationFilter.USER_ID_HEADER)).containsExactly("5");
+        assertThat(headers.get(JwtAuthenticationFilter.USER_ROLE_HEADER)).containsExactly("STUDENT");
+        assertThat(headers.get(JwtAuthenticationFilter.USER_NAME_HEADER)).containsExactly("alice");
+    }
+
+    @Test
+    void rejectsRequestWithoutToken() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/lectures/1")
+                .header(JwtAuthenticationFilter.USER_ID_HEADER, "5"));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void rejectsTokenWithUnknownKey() {
+        when(keyResolver.resolveSigningKey(any(JwsHeader.class), any(Claims.class)))
+                .thenThrow(new SignatureException("Unknown signing key: k1"));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/lectures/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(5L, "STUDENT", "alice")));
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void verifiesSignatureOncePerToken() {
+        String token = token(5L, "STUDENT", "alice");
+
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange(MockServerHttpRequest.get("/api/lectures/" + i)
+                    .header(HttpHeaders.AUTHORIZATION, token)), chain).block();
+            assertThat(forwarded.get().getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER))
+                    .isEqualTo("5");
+        }
+
+        verify(keyResolver, times(1)).resolveSigningKey(any(JwsHeader.class), any(Claims.class));
+    }
+
+    @Test
+    void acceptsCookieTokenOnlyForReads() {
+        HttpCookie cookie = new HttpCookie("token", token(5L, "STUDENT", "alice"));
+
+        filter.filter(exchange(MockServerHttpRequest.get("/api/lectures/1/file").cookie(cookie)), chain).block();
+        assertThat(forwarded.get()).isNotNull();
+
+        forwarded.set(null);
+        MockServerWebExchange post = exchange(MockServerHttpRequest.post("/api/lectures").cookie(cookie));
+        filter.filter(post, chain).block();
+        assertThat(post.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String token(Long userId, String role, String username) {
+        return Jwts.builder()
+                .setHeaderParam("kid", "k1")
+                .setSubject(username)
+                .claim("uid", userId)
+                .claim("role", role)
+                .setExpiration(Date.from(Instant.now().plusSeconds(600)))
+                .signWith(KEYS.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
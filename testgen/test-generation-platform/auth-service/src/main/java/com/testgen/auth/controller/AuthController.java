@@ -3,8 +3,14 @@ package com.testgen.auth.controller;
 import com.testgen.auth.DTOs.UserAuthResponseDTO;
 import com.testgen.auth.model.User;
 import com.testgen.auth.security.JwtTokenProvider;
+import com.testgen.auth.security.PasswordHashingExecutor;
+import com.testgen.auth.security.SigningKeyStore;
 import com.testgen.auth.service.AuthService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,6 +18,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -20,29 +33,43 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final AuthService authService;
+    private final SigningKeyStore keyStore;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
-        authService.register(user);
-        return ResponseEntity.ok().build();
+    public CompletableFuture<ResponseEntity<Void>> register(@RequestBody User user) {
+        try {
+            return passwordHashingExecutor.submit(() -> authService.register(user))
+                    .thenApply(registered -> ResponseEntity.ok().<Void>build());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<UserAuthResponseDTO> login(@RequestBody User user) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
-        );
+    public CompletableFuture<ResponseEntity<UserAuthResponseDTO>> login(@RequestBody User user) {
+        // bcrypt выполняется в отдельном ограниченном пуле, поток запроса освобождается
+        CompletableFuture<Authentication> authentication;
+        try {
+            authentication = passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword())
+            ));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-        User authorizedUser = authService.findByUsername(user.getUsername());
-        UserAuthResponseDTO userAuthResponseDTO = new UserAuthResponseDTO(
-            authorizedUser.getId(),
-            jwt,
-            authorizedUser.getUsername(),
-            authorizedUser.getRole()
-        );
-        return ResponseEntity.ok(userAuthResponseDTO);
+        return authentication.thenApply(result -> {
+            String jwt = tokenProvider.generateToken(result);
+            // Пользователь уже загружен при аутентификации, повторный запрос не нужен
+            User authorizedUser = (User) result.getPrincipal();
+            UserAuthResponseDTO userAuthResponseDTO = new UserAuthResponseDTO(
+                authorizedUser.getId(),
+                jwt,
+                authorizedUser.getUsername(),
+                authorizedUser.getRole()
+            );
+            return ResponseEntity.ok(userAuthResponseDTO);
+        });
     }
 
     @GetMapping("/refresh")
@@ -51,14 +78,19 @@ public class AuthController {
             return ResponseEntity.status(401).build();
         }
 
-        if (!tokenProvider.validateToken(token)) {
+        // Токен разбирается один раз: подпись, срок и claims за один проход
+        Optional<Claims> claims = tokenProvider.parseClaims(token);
+        if (claims.isEmpty()) {
             return ResponseEntity.status(401).build();
         }
-        System.out.println(token);
 
-        String jwt = tokenProvider.getUpdatedExpirationDateToken(token);
-        String username = tokenProvider.getUsernameFromToken(token);
-        User user = authService.findByUsername(username);
+        Long userId = claims.get().get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+        User user = userId != null
+                ? authService.findById(userId)
+                : authService.findByUsername(claims.get().getSubject());
+        // Роль берётся актуальная, а не из старого токена
+        claims.get().put(JwtTokenProvider.ROLE_CLAIM, user.getRole().name());
+        String jwt = tokenProvider.getUpdatedExpirationDateToken(claims.get());
         UserAuthResponseDTO refreshResponseDTO = new UserAuthResponseDTO(
             user.getId(),
             jwt,
@@ -69,9 +101,23 @@ public class AuthController {
         return ResponseEntity.ok(refreshResponseDTO);
     }
 
+    // Открытые ключи для локальной проверки токенов шлюзом и сервисами
+    @GetMapping("/keys")
+    public ResponseEntity<Map<String, List<Map<String, String>>>> keys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .body(Map.of("keys", keyStore.publishedKeys()));
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout() {
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    private static <T> ResponseEntity<T> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
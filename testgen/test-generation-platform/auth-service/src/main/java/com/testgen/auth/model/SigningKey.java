@@ -0,0 +1,42 @@
+package com.testgen.auth.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Ключ подписи JWT. Новый ключ публикуется заранее (activatesAt в будущем),
+ * чтобы все реплики и шлюз успели его получить до первого использования,
+ * а старый остаётся в наборе до expiresAt, пока живут подписанные им токены.
+ */
+@Entity
+@Table(name = "signing_keys")
+@Data
+@NoArgsConstructor
+public class SigningKey {
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+
+    // PKCS#8
+    @Column(name = "private_key", nullable = false)
+    private byte[] privateKey;
+
+    // X.509 SubjectPublicKeyInfo
+    @Column(name = "public_key", nullable = false)
+    private byte[] publicKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
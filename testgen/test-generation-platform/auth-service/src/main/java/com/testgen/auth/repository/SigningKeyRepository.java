@@ -0,0 +1,11 @@
+package com.testgen.auth.repository;
+
+import com.testgen.auth.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+    List<SigningKey> findByExpiresAtAfterOrderByActivatesAtDesc(Instant now);
+}
@@ -0,0 +1,214 @@
+package com.testgen.auth.security;
+
+import com.testgen.auth.model.SigningKey;
+import com.testgen.auth.repository.SigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigInteger;
+import java.security.*;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Общее для всех реплик auth-service хранилище ключей подписи в БД.
+ * Каждая реплика держит снимок действующих ключей в памяти и периодически его обновляет;
+ * ротацию выполняет та реплика, которая первой возьмёт advisory lock.
+ */
+@Slf4j
+@Component
+public class SigningKeyStore {
+
+    private static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.RS256;
+    private static final int KEY_SIZE = 2048;
+    private static final long ROTATION_LOCK_ID = 0x6a77746b657973L;
+    private static final Duration MIN_RELOAD_INTERVAL = Duration.ofSeconds(5);
+
+    public record ActiveKey(String kid, PrivateKey privateKey) {}
+
+    private record Entry(String kid, Instant activatesAt, Instant expiresAt,
+                         PrivateKey privateKey, PublicKey publicKey) {}
+
+    private final SigningKeyRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rotationInterval;
+    private final Duration activationDelay;
+    private final Duration retention;
+
+    // Отсортированы по activatesAt по убыванию
+    private volatile List<Entry> keys = List.of();
+    private volatile Map<String, Entry> keysByKid = Map.of();
+    private volatile Instant lastReload = Instant.EPOCH;
+
+    public SigningKeyStore(SigningKeyRepository repository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.keys.rotation-interval-ms:604800000}") long rotationIntervalMs,
+                           @Value("${app.keys.activation-delay-ms:600000}") long activationDelayMs,
+                           @Value("${app.jwtExpirationInMs}") long jwtExpirationInMs) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rotationInterval = Duration.ofMillis(rotationIntervalMs);
+        this.activationDelay = Duration.ofMillis(activationDelayMs);
+        // refresh продлевает токен от его текущего срока, поэтому запас — два срока жизни
+        this.retention = Duration.ofMillis(2 * jwtExpirationInMs);
+    }
+
+    @PostConstruct
+    void init() {
+        rotateIfNeeded();
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.keys.refresh-interval-ms:60000}",
+            initialDelayString = "${app.keys.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            rotateIfNeeded();
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh signing keys, keeping {} cached", keys.size(), e);
+        }
+    }
+
+    /**
+     * Ключ для подписи новых токенов — самый свежий из уже активированных.
+     */
+    public ActiveKey current() {
+        Instant now = Instant.now();
+        for (Entry entry : keys) {
+            if (!entry.activatesAt().isAfter(now)) {
+                return new ActiveKey(entry.kid(), entry.privateKey());
+            }
+        }
+        throw new IllegalStateException("No active signing key");
+    }
+
+    /**
+     * Открытый ключ для проверки подписи; неизвестный kid может означать, что снимок устарел.
+     */
+    public PublicKey publicKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        Entry entry = keysByKid.get(kid);
+        if (entry == null && Instant.now().isAfter(lastReload.plus(MIN_RELOAD_INTERVAL))) {
+            reload();
+            entry = keysByKid.get(kid);
+        }
+        return entry == null || entry.expiresAt().isBefore(Instant.now()) ? null : entry.publicKey();
+    }
+
+    /**
+     * Набор открытых ключей в формате JWK Set, включая ещё не активированные.
+     */
+    public List<Map<String, String>> publishedKeys() {
+        Instant now = Instant.now();
+        List<Map<String, String>> result = new ArrayList<>();
+        for (Entry entry : keys) {
+            if (entry.expiresAt().isBefore(now)) {
+                continue;
+            }
+            RSAPublicKey publicKey = (RSAPublicKey) entry.publicKey();
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("kid", entry.kid());
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM.getValue());
+            jwk.put("n", base64Url(publicKey.getModulus()));
+            jwk.put("e", base64Url(publicKey.getPublicExponent()));
+            result.add(jwk);
+        }
+        return result;
+    }
+
+    private synchronized void reload() {
+        List<Entry> loaded = repository.findByExpiresAtAfterOrderByActivatesAtDesc(Instant.now()).stream()
+                .map(SigningKeyStore::decode)
+                .toList();
+        Map<String, Entry> byKid = new HashMap<>();
+        loaded.forEach(entry -> byKid.put(entry.kid(), entry));
+        this.keys = loaded;
+        this.keysByKid = Map.copyOf(byKid);
+        this.lastReload = Instant.now();
+    }
+
+    private void rotateIfNeeded() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("select pg_advisory_xact_lock(" + ROTATION_LOCK_ID + ")");
+
+            Instant now = Instant.now();
+            List<SigningKey> existing = repository.findByExpiresAtAfterOrderByActivatesAtDesc(now);
+            Instant activatesAt;
+            if (existing.isEmpty()) {
+                // Первый запуск: подписывать нечем, ключ активируется сразу
+                activatesAt = now;
+            } else {
+                Instant nextRotation = existing.get(0).getActivatesAt().plus(rotationInterval);
+                if (now.isBefore(nextRotation.minus(activationDelay))) {
+                    return;
+                }
+                activatesAt = nextRotation.isAfter(now) ? nextRotation : now.plus(activationDelay);
+            }
+            SigningKey key = generate(now, activatesAt);
+            repository.save(key);
+            log.info("Generated signing key {} active from {}", key.getKid(), activatesAt);
+        });
+    }
+
+    private SigningKey generate(Instant now, Instant activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(ALGORITHM.getFamilyName());
+            generator.initialize(KEY_SIZE);
+            KeyPair pair = generator.generateKeyPair();
+
+            SigningKey key = new SigningKey();
+            key.setKid(UUID.randomUUID().toString());
+            key.setAlgorithm(ALGORITHM.getValue());
+            key.setPrivateKey(pair.getPrivate().getEncoded());
+            key.setPublicKey(pair.getPublic().getEncoded());
+            key.setCreatedAt(now);
+            key.setActivatesAt(activatesAt);
+            key.setExpiresAt(activatesAt.plus(rotationInterval).plus(activationDelay).plus(retention));
+            return key;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA is not available", e);
+        }
+    }
+
+    private static Entry decode(SigningKey key) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance(SignatureAlgorithm.forName(key.getAlgorithm()).getFamilyName());
+            return new Entry(
+                    key.getKid(),
+                    key.getActivatesAt(),
+                    key.getExpiresAt(),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(key.getPrivateKey())),
+                    factory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()))
+            );
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode signing key " + key.getKid(), e);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // BigInteger добавляет ведущий нулевой байт знака, в JWK он не нужен
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
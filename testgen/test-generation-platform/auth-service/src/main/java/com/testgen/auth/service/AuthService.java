@@ -12,6 +12,7 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
 
     public User register(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -23,11 +24,18 @@ public class AuthService {
         if (user.getRole() == null) {
             user.setRole(User.Role.STUDENT);
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.put(saved);
+        return saved;
     }
 
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userCache.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public User findById(Long id) {
+        return userCache.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.testgen.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testgen.auth.model.User;
+import com.testgen.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Кэш пользователей по username и id для входа и обновления токена.
+ * Загруженный по одному ключу пользователь сразу попадает и во второй кэш.
+ * Сервис только создаёт пользователей (через put); изменение записи
+ * в обход сервиса станет видно не позже чем через app.user-cache.ttl-ms.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> byUsername;
+    private final Cache<Long, User> byId;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${app.user-cache.max-size:10000}") long maxSize,
+                     @Value("${app.user-cache.ttl-ms:300000}") long ttlMs,
+                     MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users-by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users-by-id");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User cached = byUsername.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<User> findById(Long id) {
+        User cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(User user) {
+        byUsername.put(user.getUsername(), user);
+        byId.put(user.getId(), user);
+    }
+}
@@ -4,36 +4,95 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 
-import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.security.cert.X509Certificate;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class ApiClientConfig {
 
-    private final static String SKIP_SSL_URL_PATTERN = "https://gigachat.devices.sberbank.ru/api/**";
+    @Value("${ai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${ai.http.read-timeout-ms:120000}")
+    private long readTimeoutMs;
+
+    @Value("${ai.http.pool-acquire-timeout-ms:10000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${ai.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${ai.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${ai.http.idle-eviction-ms:30000}")
+    private long idleEvictionMs;
 
     /**
-     * Создание RestTemplate только для одного специфического эндпоинта,
-     * который требует специальной обработки SSL.
+     * RestTemplate для GigaChat: его сертификаты подписаны российским УЦ,
+     * которого нет в стандартном truststore, поэтому проверка SSL отключена.
+     * Соединения переиспользуются из пула (keep-alive), а не открываются на каждый запрос.
      */
     @Bean(name="insecureRestTemplate")
     public RestTemplate insecureRestTemplate() throws NoSuchAlgorithmException, KeyManagementException {
-        // Используем специальное имя бина, чтобы отличить его от основного RestTemplate
-        SSLContext sc = SSLContext.getInstance("SSL");
+        SSLContext sc = SSLContext.getInstance("TLS");
         sc.init(null, trustAllCertificates(), new SecureRandom());
-        HostnameVerifier allHostsValid = (hostname, session) -> true;
-        HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
-        HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-        
-        return new RestTemplate();
+
+        PoolingHttpClientConnectionManager connectionManager = pooledConnectionManager()
+                .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+                        .setSslContext(sc)
+                        .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                        .build())
+                .build();
+        return pooledRestTemplate(connectionManager);
+    }
+
+    /**
+     * RestTemplate для локальных моделей (Ollama) с тем же пулом и таймаутами.
+     */
+    @Bean(name="llmRestTemplate")
+    public RestTemplate llmRestTemplate() {
+        return pooledRestTemplate(pooledConnectionManager().build());
+    }
+
+    private PoolingHttpClientConnectionManagerBuilder pooledConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build());
+    }
+
+    private RestTemplate pooledRestTemplate(PoolingHttpClientConnectionManager connectionManager) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMs))
+                .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
     private TrustManager[] trustAllCertificates() {
@@ -49,4 +108,4 @@ public class ApiClientConfig {
             }
         };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.testgen.processing.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class GenerationConfig {
+
+    @Value("${processing.generation.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * Пул для параллельных запросов к LLM по фрагментам лекции.
+     * Размер пула ограничивает число одновременных запросов на весь сервис.
+     */
+    @Bean(name = "generationExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor generationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("generation-");
+        return executor;
+    }
+
+    /**
+     * В режиме виртуальных потоков каждый запрос идёт в своём виртуальном потоке,
+     * а ограничение одновременных запросов к LLM сохраняет concurrencyLimit:
+     * сверх лимита отправитель ждёт свободного места, а не копит очередь.
+     */
+    @Bean(name = "generationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualGenerationExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("generation-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrency);
+        return executor;
+    }
+}
@@ -0,0 +1,75 @@
+package com.testgen.processing.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Замеряет запросы к MinIO: minio.requests{operation, bucket, outcome}.
+ * Время считается до получения заголовков ответа: для GET чтение тела сюда не входит.
+ * <p>
+ * Такая же копия есть в lecture-service: сервисы собираются по отдельности, общего модуля нет.
+ */
+class MinioMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    MinioMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Response response = chain.proceed(request);
+            outcome = response.isSuccessful() ? "success" : response.code() == 404 ? "not-found" : "failure";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("minio.requests")
+                    .tag("operation", operation(request))
+                    .tag("bucket", bucket(request.url()))
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // Операция S3 по методу и параметрам запроса (клиент использует path-style адреса)
+    private static String operation(Request request) {
+        HttpUrl url = request.url();
+        if (url.queryParameterNames().contains("location")) {
+            return "location";
+        }
+        return switch (request.method()) {
+            case "GET" -> hasObject(url) ? "get" : "list";
+            case "HEAD" -> hasObject(url) ? "stat" : "bucket-exists";
+            case "PUT" -> url.queryParameter("partNumber") != null ? "upload-part" : hasObject(url) ? "put" : "bucket";
+            case "POST" -> url.queryParameterNames().contains("uploads") ? "create-upload"
+                    : url.queryParameter("uploadId") != null ? "complete-upload"
+                    : url.queryParameterNames().contains("delete") ? "delete-objects"
+                    : "post";
+            case "DELETE" -> url.queryParameter("uploadId") != null ? "abort-upload" : "delete";
+            default -> request.method().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    private static boolean hasObject(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        return segments.size() > 1 && !segments.get(1).isEmpty();
+    }
+
+    private static String bucket(HttpUrl url) {
+        String bucket = url.pathSegments().get(0);
+        return bucket.isEmpty() ? "none" : bucket;
+    }
+}
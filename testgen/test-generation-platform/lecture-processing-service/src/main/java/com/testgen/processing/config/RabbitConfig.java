@@ -4,26 +4,57 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Date;
+
 @Configuration
 public class RabbitConfig {
     public static final String TEST_QUEUE = "test.queue";
     public static final String TEST_EXCHANGE = "test-generation";
+    public static final String PROCESS_QUEUE = "process.request";
+    public static final String DEAD_LETTER_EXCHANGE = "test-generation.dlx";
+    public static final String TEST_DEAD_LETTER_QUEUE = "test.queue.dlq";
 
     @Bean
     public DirectExchange testGenerationExchange() {
         return new DirectExchange(TEST_EXCHANGE);
     }
 
+    // Аргументы должны совпадать с объявлением в test-service
     @Bean
     public Queue testQueue() {
-        return new Queue(TEST_QUEUE, true);
+        return QueueBuilder.durable(TEST_QUEUE)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(TEST_DEAD_LETTER_QUEUE)
+                .build();
     }
 
     @Bean
     public Binding testQueueBinding(Queue testQueue, DirectExchange testGenerationExchange) {
         return BindingBuilder.bind(testQueue).to(testGenerationExchange).with(TEST_QUEUE);
     }
-} 
\ No newline at end of file
+
+    // Аргументы должны совпадать с объявлением в lecture-service
+    @Bean
+    public Queue processQueue() {
+        return new Queue(PROCESS_QUEUE, true);
+    }
+
+    @Bean
+    public Binding processQueueBinding(Queue processQueue, DirectExchange testGenerationExchange) {
+        return BindingBuilder.bind(processQueue).to(testGenerationExchange).with(PROCESS_QUEUE);
+    }
+
+    // Время публикации в свойствах сообщения: по нему потребители считают задержку в очереди
+    @Bean
+    public RabbitTemplateCustomizer publishTimestampCustomizer() {
+        return template -> template.addBeforePublishPostProcessors(message -> {
+            message.getMessageProperties().setTimestamp(new Date());
+            return message;
+        });
+    }
+}
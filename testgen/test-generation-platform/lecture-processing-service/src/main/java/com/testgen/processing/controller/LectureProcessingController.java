@@ -1,9 +1,12 @@
 package com.testgen.processing.controller;
 
-import com.testgen.processing.model.TestGenerationRequest;
+import com.testgen.processing.model.ProcessLectureRequest;
+import com.testgen.processing.model.ProcessingJob;
 import com.testgen.processing.service.LectureProcessingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,8 +20,14 @@ public class LectureProcessingController {
     private final LectureProcessingService processingService;
 
     @PostMapping
-    public ResponseEntity<Void> processLecture(@RequestBody TestGenerationRequest request) {
-        processingService.processLecture(request);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ProcessingJob> processLecture(@RequestBody ProcessLectureRequest request) {
+        return ResponseEntity.accepted().body(processingService.submit(request));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ProcessingJob> getJob(@PathVariable String jobId) {
+        return processingService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
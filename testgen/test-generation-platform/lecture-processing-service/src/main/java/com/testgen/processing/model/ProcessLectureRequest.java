@@ -0,0 +1,11 @@
+package com.testgen.processing.model;
+
+import lombok.Data;
+
+// Тело POST /api/process. Хэша файла здесь нет: клиенту он не доверяется, файл хэшируется при скачивании
+@Data
+public class ProcessLectureRequest {
+    private Long lectureId;
+    private String filePath;
+    private Integer questionCount;
+}
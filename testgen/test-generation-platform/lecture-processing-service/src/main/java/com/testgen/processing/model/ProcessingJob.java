@@ -0,0 +1,46 @@
+package com.testgen.processing.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ProcessingJob {
+
+    public enum Status {
+        QUEUED,
+        EXTRACTING,
+        GENERATING,
+        DONE,
+        FAILED
+    }
+
+    private String jobId;
+    private Long lectureId;
+    private String filePath;
+    private Status status;
+    private String error;
+    private Instant queuedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    @JsonIgnore
+    private Instant stageStartedAt;
+
+    // Время в каждой стадии, мс
+    private Map<Status, Long> timings = new EnumMap<>(Status.class);
+
+    // Вопросы появляются здесь по мере генерации, до публикации готового теста
+    private List<JsonNode> questions = new ArrayList<>();
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
@@ -4,6 +4,13 @@ import lombok.Data;
 
 @Data
 public class TestGenerationRequest {
+    private String jobId;
     private Long lectureId;
     private String filePath;
-} 
\ No newline at end of file
+    // SHA-256 файла, посчитанный lecture-service при загрузке (только из outbox):
+    // позволяет не скачивать файл ради кэша и сохранённого текста
+    private String fileSha256;
+    private Integer questionCount;
+    // Порядковый номер генерации: test-service не перезаписывает тест более старой версией
+    private Long generation;
+}
@@ -0,0 +1,156 @@
+package com.testgen.processing.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.testgen.processing.model.ProcessingJob;
+import com.testgen.processing.model.ProcessingJob.Status;
+import com.testgen.processing.model.TestGenerationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранит статусы задач обработки лекций. Завершённые задачи удаляются
+ * по истечении {@code processing.jobs.retention}.
+ * Статусы живут в памяти процесса, поэтому сервис рассчитан на один экземпляр:
+ * при нескольких репликах задачу, взятую из очереди другой репликой, здесь не увидеть.
+ */
+@Component
+public class ProcessingJobRegistry {
+
+    private final Map<String, ProcessingJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${processing.jobs.retention:PT1H}")
+    private Duration retention;
+
+    public ProcessingJob register(TestGenerationRequest request) {
+        ProcessingJob job = newJob(request);
+        jobs.put(job.getJobId(), job);
+        return copyOf(job);
+    }
+
+    // Запросы из outbox lecture-service приходят в очередь без вызова submit
+    public void registerIfAbsent(TestGenerationRequest request) {
+        if (request.getJobId() != null) {
+            jobs.putIfAbsent(request.getJobId(), newJob(request));
+        }
+    }
+
+    public Optional<ProcessingJob> find(String jobId) {
+        ProcessingJob job = lookup(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        synchronized (job) {
+            return Optional.of(copyOf(job));
+        }
+    }
+
+    public void transition(String jobId, Status status) {
+        ProcessingJob job = lookup(jobId);
+        if (job == null) {
+            return;
+        }
+        synchronized (job) {
+            Instant now = Instant.now();
+            closeStage(job, now);
+            if (job.getStartedAt() == null && status != Status.QUEUED) {
+                job.setStartedAt(now);
+            }
+            job.setStatus(status);
+            if (job.isCompleted()) {
+                job.setFinishedAt(now);
+            }
+        }
+    }
+
+    public void addQuestion(String jobId, JsonNode question) {
+        ProcessingJob job = lookup(jobId);
+        if (job == null) {
+            return;
+        }
+        synchronized (job) {
+            job.getQuestions().add(question);
+        }
+    }
+
+    public void fail(String jobId, Throwable cause) {
+        ProcessingJob job = lookup(jobId);
+        if (job == null) {
+            return;
+        }
+        synchronized (job) {
+            job.setError(cause.getMessage());
+        }
+        transition(jobId, Status.FAILED);
+    }
+
+    @Scheduled(fixedDelayString = "${processing.jobs.cleanup-interval-ms:60000}")
+    public void evictCompleted() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                return job.isCompleted() && job.getFinishedAt().isBefore(threshold);
+            }
+        });
+    }
+
+    private ProcessingJob newJob(TestGenerationRequest request) {
+        ProcessingJob job = new ProcessingJob();
+        job.setJobId(request.getJobId());
+        job.setLectureId(request.getLectureId());
+        job.setFilePath(request.getFilePath());
+        job.setStatus(Status.QUEUED);
+        job.setQueuedAt(Instant.now());
+        job.setStageStartedAt(job.getQueuedAt());
+        return job;
+    }
+
+    private ProcessingJob lookup(String jobId) {
+        return jobId == null ? null : jobs.get(jobId);
+    }
+
+    private void closeStage(ProcessingJob job, Instant now) {
+        job.getTimings().put(job.getStatus(), Duration.between(job.getStageStartedAt(), now).toMillis());
+        job.setStageStartedAt(now);
+    }
+
+    private ProcessingJob copyOf(ProcessingJob job) {
+        ProcessingJob copy = new ProcessingJob();
+        copy.setJobId(job.getJobId());
+        copy.setLectureId(job.getLectureId());
+        copy.setFilePath(job.getFilePath());
+        copy.setStatus(job.getStatus());
+        copy.setError(job.getError());
+        copy.setQueuedAt(job.getQueuedAt());
+        copy.setStartedAt(job.getStartedAt());
+        copy.setFinishedAt(job.getFinishedAt());
+        copy.setTimings(new EnumMap<>(job.getTimings()));
+        copy.setQuestions(withoutAnswers(job.getQuestions()));
+        return copy;
+    }
+
+    // Статус задачи доступен без проверки роли, поэтому правильные ответы наружу не отдаём
+    private static List<JsonNode> withoutAnswers(List<JsonNode> questions) {
+        List<JsonNode> stripped = new ArrayList<>(questions.size());
+        for (JsonNode question : questions) {
+            if (question instanceof ObjectNode object) {
+                ObjectNode copy = object.deepCopy();
+                copy.remove("correctAnswer");
+                stripped.add(copy);
+            } else {
+                stripped.add(question);
+            }
+        }
+        return stripped;
+    }
+}
@@ -0,0 +1,198 @@
+package com.testgen.processing.service.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Постоянный кэш сгенерированных вопросов в отдельном (не публичном) бакете MinIO.
+ * Повторная загрузка того же файла не требует ни разбора документа, ни запроса к LLM.
+ */
+@Slf4j
+@Component
+public class QuestionCache {
+
+    static final String PREFIX = "questions/";
+
+    private final MinioClient minioClient;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${processing.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${processing.cache.bucket:processing-cache}")
+    private String bucketName;
+
+    @Value("${processing.cache.ttl:P30D}")
+    private Duration ttl;
+
+    @Value("${processing.cache.max-entries:10000}")
+    private int maxEntries;
+
+    public QuestionCache(MinioClient minioClient, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.minioClient = minioClient;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("processing.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("processing.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initBucket() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean exists = minioClient.bucketExists(
+                BucketExistsArgs.builder()
+                    .bucket(bucketName)
+                    .build());
+            if (!exists) {
+                minioClient.makeBucket(
+                    MakeBucketArgs.builder()
+                        .bucket(bucketName)
+                        .build());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to initialize MinIO cache bucket", e);
+        }
+    }
+
+    public Optional<ArrayNode> find(QuestionCacheKey key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try (GetObjectResponse object = minioClient.getObject(
+                GetObjectArgs.builder().bucket(bucketName).object(key.objectName()).build())) {
+            String lastModified = object.headers().get("Last-Modified");
+            if (lastModified != null && isExpired(ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME))) {
+                remove(key.objectName());
+                misses.increment();
+                return Optional.empty();
+            }
+            JsonNode questions = objectMapper.readTree(object);
+            if (!questions.isArray() || questions.isEmpty()) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of((ArrayNode) questions);
+        } catch (ErrorResponseException e) {
+            if (!"NoSuchKey".equals(e.errorResponse().code())) {
+                log.warn("Question cache lookup failed for {}", key, e);
+            }
+        } catch (Exception e) {
+            // Кэш не должен ломать обработку: при любой ошибке просто генерируем заново
+            log.warn("Question cache lookup failed for {}", key, e);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(QuestionCacheKey key, ArrayNode questions) {
+        if (!enabled || questions.isEmpty()) {
+            return;
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(questions);
+            minioClient.putObject(
+                PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(key.objectName())
+                    .stream(new ByteArrayInputStream(body), body.length, -1)
+                    .contentType("application/json")
+                    .build()
+            );
+        } catch (Exception e) {
+            log.warn("Failed to store questions in cache for {}", key, e);
+        }
+    }
+
+    /**
+     * Удаляет просроченные записи и самые старые сверх {@code max-entries}.
+     */
+    @Scheduled(fixedDelayString = "${processing.cache.eviction-interval-ms:3600000}")
+    public void evict() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Item> entries = new ArrayList<>();
+            for (Result<Item> result : minioClient.listObjects(
+                    ListObjectsArgs.builder().bucket(bucketName).prefix(PREFIX).recursive(true).build())) {
+                entries.add(result.get());
+            }
+            entries.sort(Comparator.comparing(Item::lastModified));
+
+            List<DeleteObject> toDelete = new ArrayList<>();
+            int remaining = entries.size();
+            for (Item entry : entries) {
+                if (isExpired(entry.lastModified()) || remaining > maxEntries) {
+                    toDelete.add(new DeleteObject(entry.objectName()));
+                    remaining--;
+                }
+            }
+            if (toDelete.isEmpty()) {
+                return;
+            }
+
+            // removeObjects ленивый: удаление происходит при обходе результата
+            for (Result<DeleteError> error : minioClient.removeObjects(
+                    RemoveObjectsArgs.builder().bucket(bucketName).objects(toDelete).build())) {
+                DeleteError deleteError = error.get();
+                log.warn("Failed to evict {} from question cache: {}", deleteError.objectName(), deleteError.message());
+            }
+        } catch (Exception e) {
+            log.warn("Question cache eviction failed", e);
+        }
+    }
+
+    private boolean isExpired(ZonedDateTime lastModified) {
+        return lastModified.toInstant().plus(ttl).isBefore(Instant.now());
+    }
+
+    private void remove(String objectName) {
+        try {
+            minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build()
+            );
+        } catch (Exception e) {
+            log.warn("Failed to remove expired cache entry {}", objectName, e);
+        }
+    }
+}
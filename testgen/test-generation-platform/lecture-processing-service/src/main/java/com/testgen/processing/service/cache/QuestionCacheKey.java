@@ -0,0 +1,17 @@
+package com.testgen.processing.service.cache;
+
+/**
+ * Вопросы зависят не только от файла, но и от промпта, модели и их количества,
+ * поэтому все эти параметры входят в ключ.
+ */
+public record QuestionCacheKey(
+        String contentHash,
+        String promptVersion,
+        String model,
+        int questionCount
+) {
+
+    public String objectName() {
+        return QuestionCache.PREFIX + contentHash + "/" + promptVersion + "-" + model + "-" + questionCount + ".json";
+    }
+}
@@ -0,0 +1,43 @@
+package com.testgen.processing.service.extraction;
+
+import org.apache.poi.hwpf.HWPFDocument;
+import org.apache.poi.hwpf.usermodel.Range;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+@Component
+public class DocTextExtractor implements TextExtractor {
+
+    @Override
+    public Set<String> contentTypes() {
+        return Set.of("application/msword");
+    }
+
+    @Override
+    public Set<String> extensions() {
+        return Set.of(".doc");
+    }
+
+    @Override
+    public void extract(Path file, TextSink sink) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file.toFile(), true);
+             HWPFDocument doc = new HWPFDocument(fs)) {
+            // Абзацы читаем по одному: getParagraphText() собрал бы весь документ в массив строк
+            Range range = doc.getRange();
+            int paragraphs = range.numParagraphs();
+            for (int i = 0; i < paragraphs; i++) {
+                String text = range.getParagraph(i).text();
+                if (text.endsWith("\r")) {
+                    text = text + "\n";
+                }
+                if (!sink.accept(text)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.testgen.processing.service.extraction;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+@RequiredArgsConstructor
+public class DocumentExtractionService {
+
+    private static final String GENERIC_CONTENT_TYPE = "application/octet-stream";
+    private static final long MB = 1024 * 1024;
+
+    private final MinioClient minioClient;
+    private final List<TextExtractor> extractors;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${minio.bucket}")
+    private String bucketName;
+
+    @Value("${processing.extraction.temp-dir:}")
+    private String tempDir;
+
+    /**
+     * Скачивает объект из MinIO во временный файл, попутно считая SHA-256.
+     * Документ целиком в памяти не держится: POI и PDFBox дальше работают с файлом.
+     */
+    public SourceDocument download(String filePath) throws Exception {
+        Path file = tempDir.isBlank()
+                ? Files.createTempFile("lecture-", suffixOf(filePath))
+                : Files.createTempFile(Path.of(tempDir), "lecture-", suffixOf(filePath));
+        try (GetObjectResponse object = minioClient.getObject(
+                GetObjectArgs.builder().bucket(bucketName).object(filePath).build());
+             DigestInputStream input = new DigestInputStream(object, MessageDigest.getInstance("SHA-256"))) {
+            long size = Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            String sha256 = HexFormat.of().formatHex(input.getMessageDigest().digest());
+            return new SourceDocument(filePath, file, object.headers().get("Content-Type"), sha256, size);
+        } catch (Exception e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Передаёт извлечённый текст в {@code sink} по мере разбора документа.
+     * Время разбора: processing.extraction{type, size, outcome}.
+     */
+    public void extract(SourceDocument document, TextSink sink) throws IOException {
+        TextExtractor extractor = resolve(document.contentType(), document.filePath());
+        String type = typeOf(extractor);
+        DistributionSummary.builder("processing.extraction.document.size")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(document.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            extractor.extract(document.file(), sink);
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("processing.extraction")
+                    .tag("type", type)
+                    .tag("size", sizeBucket(document.size()))
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String typeOf(TextExtractor extractor) {
+        return extractor.extensions().stream()
+                .sorted()
+                .findFirst()
+                .map(extension -> extension.substring(1))
+                .orElse("unknown");
+    }
+
+    // Крупные корзины: тег должен оставаться низкой кардинальности
+    private static String sizeBucket(long size) {
+        if (size < MB) {
+            return "lt-1mb";
+        }
+        if (size < 10 * MB) {
+            return "1-10mb";
+        }
+        if (size < 50 * MB) {
+            return "10-50mb";
+        }
+        return "gt-50mb";
+    }
+
+    private TextExtractor resolve(String contentType, String filePath) {
+        if (contentType != null) {
+            String mimeType = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+            if (!mimeType.isEmpty() && !GENERIC_CONTENT_TYPE.equals(mimeType)) {
+                for (TextExtractor extractor : extractors) {
+                    if (extractor.contentTypes().contains(mimeType)) {
+                        return extractor;
+                    }
+                }
+            }
+        }
+
+        // Старые загрузки могли сохраниться без корректного Content-Type
+        String lowerPath = filePath.toLowerCase(Locale.ROOT);
+        for (TextExtractor extractor : extractors) {
+            if (extractor.extensions().stream().anyMatch(lowerPath::endsWith)) {
+                return extractor;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported file format: " + filePath + " (" + contentType + ")");
+    }
+
+    private String suffixOf(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        return dot >= 0 && dot > filePath.lastIndexOf('/') ? filePath.substring(dot) : ".tmp";
+    }
+}
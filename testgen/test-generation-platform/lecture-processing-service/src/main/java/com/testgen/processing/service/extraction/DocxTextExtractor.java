@@ -0,0 +1,139 @@
+package com.testgen.processing.service.extraction;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.XMLHelper;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Читает word/document.xml потоково через SAX, не строя XWPFDocument:
+ * в памяти держится только текущий абзац, а разбор прекращается,
+ * как только получатель отказался от текста.
+ */
+@Component
+public class DocxTextExtractor implements TextExtractor {
+
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    // Очень длинный абзац отдаём частями, чтобы не копить его целиком
+    private static final int MAX_CHUNK_CHARS = 8192;
+
+    @Override
+    public Set<String> contentTypes() {
+        return Set.of("application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+    }
+
+    @Override
+    public Set<String> extensions() {
+        return Set.of(".docx");
+    }
+
+    @Override
+    public void extract(Path file, TextSink sink) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            PackagePart document = mainDocument(pkg);
+            XMLReader reader = XMLHelper.newXMLReader();
+            reader.setContentHandler(new ParagraphHandler(sink));
+            try (InputStream in = document.getInputStream()) {
+                reader.parse(new InputSource(in));
+            } catch (StopExtraction ignored) {
+                // получатель набрал достаточно текста
+            }
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid DOCX package", e);
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid DOCX document", e);
+        }
+    }
+
+    private static PackagePart mainDocument(OPCPackage pkg) throws InvalidFormatException {
+        PackageRelationship relationship = pkg
+                .getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT)
+                .getRelationship(0);
+        PackagePart part = relationship != null ? pkg.getPart(relationship) : null;
+        if (part == null) {
+            throw new InvalidFormatException("DOCX package has no main document part");
+        }
+        return part;
+    }
+
+    private static final class StopExtraction extends SAXException {
+    }
+
+    private static final class ParagraphHandler extends DefaultHandler {
+
+        private final TextSink sink;
+        private final StringBuilder paragraph = new StringBuilder();
+        private boolean inText;
+
+        ParagraphHandler(TextSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (!WORD_NS.equals(uri)) {
+                return;
+            }
+            switch (localName) {
+                case "t" -> inText = true;
+                case "tab" -> paragraph.append('\t');
+                case "br", "cr" -> paragraph.append('\n');
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (!WORD_NS.equals(uri)) {
+                return;
+            }
+            if ("t".equals(localName)) {
+                inText = false;
+            } else if ("p".equals(localName)) {
+                paragraph.append('\n');
+                flush();
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (!inText) {
+                return;
+            }
+            int end = start + length;
+            while (start < end) {
+                int take = Math.min(end - start, MAX_CHUNK_CHARS - paragraph.length());
+                paragraph.append(ch, start, take);
+                start += take;
+                if (paragraph.length() >= MAX_CHUNK_CHARS) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() throws SAXException {
+            String chunk = paragraph.toString();
+            paragraph.setLength(0);
+            if (!sink.accept(chunk)) {
+                throw new StopExtraction();
+            }
+        }
+    }
+}
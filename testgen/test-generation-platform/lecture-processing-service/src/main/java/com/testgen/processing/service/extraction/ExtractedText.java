@@ -0,0 +1,89 @@
+package com.testgen.processing.service.extraction;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Накопитель нормализованного текста документа с началом каждой порции извлечения
+ * (страница PDF, абзац Word). Пустые порции тоже получают смещение,
+ * чтобы номер страницы совпадал с индексом в {@link #offsets()}.
+ */
+public class ExtractedText implements TextSink {
+
+    private static final Pattern CONTROL = Pattern.compile("[\\p{Cc}&&[^\\n\\t]]");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[ \\t\\u00A0]+");
+    private static final Pattern LINE_EDGE_SPACE = Pattern.compile(" *\\n *");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private final int maxChars;
+    private final StringBuilder text = new StringBuilder();
+    private final List<Integer> offsets = new ArrayList<>();
+    private boolean truncated;
+
+    public ExtractedText(int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public boolean accept(String chunk) {
+        offsets.add(text.length());
+        String normalized = normalize(chunk);
+        int remaining = maxChars - text.length();
+        if (normalized.length() > remaining) {
+            text.append(normalized, 0, remaining);
+            truncated = true;
+            return false;
+        }
+        text.append(normalized);
+        return text.length() < maxChars;
+    }
+
+    public String text() {
+        return text.toString();
+    }
+
+    // Без промежуточной копии текста
+    public void writeTo(Writer writer) throws IOException {
+        writer.append(text);
+    }
+
+    public int length() {
+        return text.length();
+    }
+
+    public int maxChars() {
+        return maxChars;
+    }
+
+    public String prefix(int chars) {
+        return text.substring(0, Math.min(chars, text.length()));
+    }
+
+    public List<Integer> offsets() {
+        return offsets;
+    }
+
+    public boolean truncated() {
+        return truncated;
+    }
+
+    /**
+     * NFC, единые переводы строк, без управляющих символов, мягких переносов
+     * и повторяющихся пробелов; порция всегда заканчивается переводом строки.
+     */
+    static String normalize(String chunk) {
+        String value = Normalizer.normalize(chunk, Normalizer.Form.NFC)
+                .replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replace("\u00AD", "");
+        value = CONTROL.matcher(value).replaceAll("");
+        value = HORIZONTAL_SPACE.matcher(value).replaceAll(" ");
+        value = LINE_EDGE_SPACE.matcher(value).replaceAll("\n");
+        value = BLANK_LINES.matcher(value).replaceAll("\n\n").strip();
+        return value.isEmpty() ? value : value + "\n";
+    }
+}
@@ -0,0 +1,53 @@
+package com.testgen.processing.service.extraction;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+@Component
+public class PdfTextExtractor implements TextExtractor {
+
+    @Value("${processing.extraction.pdf.max-main-memory-bytes:16777216}")
+    private long maxMainMemoryBytes;
+
+    @Value("${processing.extraction.temp-dir:}")
+    private String tempDir;
+
+    @Override
+    public Set<String> contentTypes() {
+        return Set.of("application/pdf");
+    }
+
+    @Override
+    public Set<String> extensions() {
+        return Set.of(".pdf");
+    }
+
+    @Override
+    public void extract(Path file, TextSink sink) throws IOException {
+        // Всё, что не помещается в maxMainMemoryBytes, PDFBox держит во временном файле
+        MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        if (!tempDir.isBlank()) {
+            memoryUsage.setTempDir(new File(tempDir));
+        }
+
+        try (PDDocument document = PDDocument.load(file.toFile(), memoryUsage)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            int pages = document.getNumberOfPages();
+            for (int page = 1; page <= pages; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                if (!sink.accept(stripper.getText(document))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.testgen.processing.service.extraction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Локальная копия файла лекции вместе с SHA-256 содержимого,
+ * посчитанным при скачивании. Временный файл удаляется в {@link #close()}.
+ */
+public record SourceDocument(
+        String filePath,
+        Path file,
+        String contentType,
+        String sha256,
+        long size
+) implements AutoCloseable {
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
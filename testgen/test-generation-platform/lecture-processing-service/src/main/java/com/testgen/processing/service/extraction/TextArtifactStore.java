@@ -0,0 +1,257 @@
+package com.testgen.processing.service.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Извлечённый текст лекции, сохранённый один раз на содержимое файла (ключ — SHA-256):
+ * {@code text/v1/<sha256>.txt.gz} — нормализованный текст в gzip,
+ * {@code text/v1/<sha256>.index.json} — смещения страниц/абзацев.
+ * Повторная генерация читает сжатый текст вместо разбора PDF/DOCX.
+ * Текст хранится не длиннее processing.extraction.max-text-chars, артефакты старше ttl
+ * и самые старые сверх max-entries удаляются по расписанию, как записи {@code QuestionCache}.
+ */
+@Slf4j
+@Component
+public class TextArtifactStore {
+
+    // Версия входит в ключ: при изменении нормализации старые артефакты просто не находятся
+    static final String PREFIX = "text/v1/";
+    private static final String TEXT_SUFFIX = ".txt.gz";
+    private static final String INDEX_SUFFIX = ".index.json";
+    // Пользовательские метаданные объекта: с каким лимитом извлекался текст и был ли он обрезан
+    private static final String MAX_CHARS_META = "max-chars";
+    private static final String TRUNCATED_META = "truncated";
+
+    private final MinioClient minioClient;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${processing.text-artifacts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${processing.text-artifacts.bucket:processing-cache}")
+    private String bucketName;
+
+    @Value("${processing.text-artifacts.ttl:P30D}")
+    private Duration ttl;
+
+    @Value("${processing.text-artifacts.max-entries:10000}")
+    private int maxEntries;
+
+    public TextArtifactStore(MinioClient minioClient, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.minioClient = minioClient;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("processing.text-artifacts.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("processing.text-artifacts.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initBucket() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean exists = minioClient.bucketExists(
+                BucketExistsArgs.builder()
+                    .bucket(bucketName)
+                    .build());
+            if (!exists) {
+                minioClient.makeBucket(
+                    MakeBucketArgs.builder()
+                        .bucket(bucketName)
+                        .build());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to initialize MinIO text artifact bucket", e);
+        }
+    }
+
+    /**
+     * Первые {@code limit} символов сохранённого текста; читается только нужная часть.
+     * Артефакт, обрезанный при меньшем лимите, считается промахом: документ разбирается заново.
+     */
+    public Optional<String> read(String contentHash, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try (GetObjectResponse object = minioClient.getObject(
+                GetObjectArgs.builder().bucket(bucketName).object(textObject(contentHash)).build());
+             Reader reader = new InputStreamReader(new GZIPInputStream(object, 64 * 1024), StandardCharsets.UTF_8)) {
+            if (truncatedBelow(object, limit)) {
+                misses.increment();
+                return Optional.empty();
+            }
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[8192];
+            int read;
+            while (text.length() < limit
+                    && (read = reader.read(buffer, 0, Math.min(buffer.length, limit - text.length()))) != -1) {
+                text.append(buffer, 0, read);
+            }
+            hits.increment();
+            return Optional.of(text.toString());
+        } catch (ErrorResponseException e) {
+            if (!"NoSuchKey".equals(e.errorResponse().code())) {
+                log.warn("Text artifact lookup failed for {}", contentHash, e);
+            }
+        } catch (Exception e) {
+            // Без артефакта документ просто разбирается заново
+            log.warn("Text artifact lookup failed for {}", contentHash, e);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String contentHash, ExtractedText extracted) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Текст ограничен max-text-chars, поэтому сжатый объект собирается в памяти
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(compressed), StandardCharsets.UTF_8)) {
+                extracted.writeTo(writer);
+            }
+            put(textObject(contentHash), compressed.toByteArray(), "application/gzip", Map.of(
+                    MAX_CHARS_META, String.valueOf(extracted.maxChars()),
+                    TRUNCATED_META, String.valueOf(extracted.truncated())));
+
+            ObjectNode index = objectMapper.createObjectNode();
+            index.put("chars", extracted.length());
+            index.put("truncated", extracted.truncated());
+            ArrayNode offsets = index.putArray("offsets");
+            for (int offset : extracted.offsets()) {
+                offsets.add(offset);
+            }
+            put(PREFIX + contentHash + INDEX_SUFFIX, objectMapper.writeValueAsBytes(index), "application/json", Map.of());
+        } catch (Exception e) {
+            log.warn("Failed to store text artifact for {}", contentHash, e);
+        }
+    }
+
+    /**
+     * Удаляет просроченные артефакты и самые старые сверх {@code max-entries}:
+     * текст и индекс одного хэша удаляются вместе.
+     */
+    @Scheduled(fixedDelayString = "${processing.text-artifacts.eviction-interval-ms:3600000}")
+    public void evict() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Хэш -> его объекты; возраст артефакта — по самому старому из них
+            Map<String, List<Item>> artifacts = new HashMap<>();
+            for (Result<Item> result : minioClient.listObjects(
+                    ListObjectsArgs.builder().bucket(bucketName).prefix(PREFIX).recursive(true).build())) {
+                Item item = result.get();
+                artifacts.computeIfAbsent(contentHash(item.objectName()), hash -> new ArrayList<>()).add(item);
+            }
+            List<List<Item>> entries = new ArrayList<>(artifacts.values());
+            entries.sort(Comparator.comparing(TextArtifactStore::lastModified));
+
+            List<DeleteObject> toDelete = new ArrayList<>();
+            int remaining = entries.size();
+            for (List<Item> entry : entries) {
+                if (isExpired(lastModified(entry)) || remaining > maxEntries) {
+                    entry.forEach(item -> toDelete.add(new DeleteObject(item.objectName())));
+                    remaining--;
+                }
+            }
+            if (toDelete.isEmpty()) {
+                return;
+            }
+
+            // removeObjects ленивый: удаление происходит при обходе результата
+            for (Result<DeleteError> error : minioClient.removeObjects(
+                    RemoveObjectsArgs.builder().bucket(bucketName).objects(toDelete).build())) {
+                DeleteError deleteError = error.get();
+                log.warn("Failed to evict text artifact {}: {}", deleteError.objectName(), deleteError.message());
+            }
+        } catch (Exception e) {
+            log.warn("Text artifact eviction failed", e);
+        }
+    }
+
+    private void put(String objectName, byte[] body, String contentType, Map<String, String> metadata) throws Exception {
+        minioClient.putObject(
+            PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .stream(new ByteArrayInputStream(body), body.length, -1)
+                .contentType(contentType)
+                .userMetadata(metadata)
+                .build()
+        );
+    }
+
+    private static boolean truncatedBelow(GetObjectResponse object, int limit) {
+        String maxChars = object.headers().get("x-amz-meta-" + MAX_CHARS_META);
+        return Boolean.parseBoolean(object.headers().get("x-amz-meta-" + TRUNCATED_META))
+                && maxChars != null && Integer.parseInt(maxChars) < limit;
+    }
+
+    private boolean isExpired(ZonedDateTime lastModified) {
+        return lastModified.toInstant().plus(ttl).isBefore(Instant.now());
+    }
+
+    private static ZonedDateTime lastModified(List<Item> objects) {
+        return objects.stream().map(Item::lastModified).min(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    static String contentHash(String objectName) {
+        String name = objectName.substring(PREFIX.length());
+        if (name.endsWith(TEXT_SUFFIX)) {
+            return name.substring(0, name.length() - TEXT_SUFFIX.length());
+        }
+        if (name.endsWith(INDEX_SUFFIX)) {
+            return name.substring(0, name.length() - INDEX_SUFFIX.length());
+        }
+        return name;
+    }
+
+    private static String textObject(String contentHash) {
+        return PREFIX + contentHash + TEXT_SUFFIX;
+    }
+}
@@ -0,0 +1,18 @@
+package com.testgen.processing.service.extraction;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Извлекает текст из документа определённого формата, отдавая его
+ * порциями (страница, абзац) без материализации всего документа в памяти.
+ */
+public interface TextExtractor {
+
+    Set<String> contentTypes();
+
+    Set<String> extensions();
+
+    void extract(Path file, TextSink sink) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.testgen.processing.service.extraction;
+
+@FunctionalInterface
+public interface TextSink {
+
+    /**
+     * @return {@code false}, если получателю больше не нужен текст
+     * и извлечение можно прекратить
+     */
+    boolean accept(String chunk);
+}
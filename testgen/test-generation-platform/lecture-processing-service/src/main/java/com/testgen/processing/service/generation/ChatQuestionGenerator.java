@@ -0,0 +1,96 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Общая часть генераторов на основе chat-completion API: промпт,
+ * потоковый разбор ответа модели и валидация вопросов.
+ */
+@Slf4j
+public abstract class ChatQuestionGenerator implements QuestionGenerator {
+
+    private static final String SYSTEM_PROMPT = """
+        Ты — генератор вопросов. Верни ТОЛЬКО JSON в таком формате:
+        {
+          "questions": [
+            {
+              "text": "Вопрос по тексту",
+              "options": ["Ответ 1", "Ответ 2", "Ответ 3", "Ответ 4"],
+              "correctAnswer": <<индекс правильного ответа - тип int, от 0 до 3>>
+            }
+          ]
+        }
+        Никаких комментариев, только чистый JSON!""";
+
+    protected final ObjectMapper objectMapper;
+
+    protected ChatQuestionGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ArrayNode generate(String text, int questionCount, Consumer<JsonNode> onQuestion) {
+        ArrayNode validated = objectMapper.createArrayNode();
+        try {
+            StreamingQuestionParser parser = new StreamingQuestionParser(objectMapper, question -> {
+                if (isValid(question)) {
+                    validated.add(question);
+                    onQuestion.accept(question);
+                }
+            });
+            stream(buildMessages(text, questionCount), parser::feed);
+            parser.finish();
+        } catch (Exception e) {
+            if (validated.isEmpty()) {
+                throw new RuntimeException("Failed to call API", e);
+            }
+            // Уже разобранные вопросы корректны, испорченный хвост ответа отбрасываем
+            log.warn("Model response broke off after {} questions", validated.size(), e);
+        }
+        return validated;
+    }
+
+    /**
+     * Запрашивает потоковый ответ модели и передаёт фрагменты его текста
+     * в {@code consumer} по мере получения.
+     */
+    protected abstract void stream(ArrayNode messages, ContentConsumer consumer) throws Exception;
+
+    @FunctionalInterface
+    protected interface ContentConsumer {
+        void accept(String content) throws IOException;
+    }
+
+    private ArrayNode buildMessages(String text, int questionCount) {
+        ObjectNode systemMessage = objectMapper.createObjectNode();
+        systemMessage.put("role", "system");
+        systemMessage.put("content", SYSTEM_PROMPT);
+
+        ObjectNode userMessage = objectMapper.createObjectNode();
+        userMessage.put("role", "user");
+        userMessage.put("content", "Сгенерируй " + questionCount + " вопросов на основе текста:\n" + text);
+
+        return objectMapper.createArrayNode().add(systemMessage).add(userMessage);
+    }
+
+    private boolean isValid(JsonNode question) {
+        if (
+                question.has("correctAnswer") &&
+                        question.get("correctAnswer").isInt() &&
+                        question.has("options") &&
+                        question.get("options").isArray()
+        ) {
+            int index = question.get("correctAnswer").asInt();
+            int optionsSize = question.get("options").size();
+            return index >= 0 && index < optionsSize;
+        }
+        return false;
+    }
+}
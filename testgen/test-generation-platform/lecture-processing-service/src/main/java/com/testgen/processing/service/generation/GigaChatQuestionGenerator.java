@@ -0,0 +1,93 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "ai.provider", havingValue = "gigachat", matchIfMissing = true)
+public class GigaChatQuestionGenerator extends ChatQuestionGenerator {
+
+    private final RestTemplate restTemplate;
+    private final GigaChatTokenProvider tokenProvider;
+
+    @Value("${ai.api.url:https://gigachat.devices.sberbank.ru/api/v1/chat/completions}")
+    private String apiUrl;
+
+    @Value("${ai.api.model:GigaChat}")
+    private String model;
+
+    @Value("${processing.generation.max-tokens:2000}")
+    private int maxTokens;
+
+    public GigaChatQuestionGenerator(@Qualifier("insecureRestTemplate") RestTemplate restTemplate,
+                                     GigaChatTokenProvider tokenProvider,
+                                     ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.restTemplate = restTemplate;
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    protected void stream(ArrayNode messages, ContentConsumer consumer) throws Exception {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("model", model);
+        payload.put("temperature", 0.1);
+        payload.put("max_tokens", maxTokens);
+        payload.put("stream", true);
+        payload.set("messages", messages);
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+        String accessToken = tokenProvider.getAccessToken();
+
+        restTemplate.execute(
+                apiUrl,
+                HttpMethod.POST,
+                request -> {
+                    HttpHeaders headers = request.getHeaders();
+                    headers.setContentType(MediaType.APPLICATION_JSON);
+                    headers.setBearerAuth(accessToken);
+                    headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                    request.getBody().write(body);
+                },
+                response -> {
+                    // Server-Sent Events: строки "data: {...}", в конце "data: [DONE]"
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (!line.startsWith("data:")) {
+                                continue;
+                            }
+                            String data = line.substring("data:".length()).strip();
+                            if ("[DONE]".equals(data)) {
+                                break;
+                            }
+                            JsonNode event = objectMapper.readTree(data);
+                            consumer.accept(event.path("choices").path(0)
+                                    .path("delta").path("content").asText(""));
+                        }
+                    }
+                    return null;
+                }
+        );
+    }
+}
@@ -0,0 +1,170 @@
+package com.testgen.processing.service.generation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэширует OAuth-токен GigaChat до истечения срока действия и заранее
+ * обновляет его в фоне. Одновременно выполняется не больше одного запроса
+ * к сервису авторизации.
+ */
+@Slf4j
+@Component
+public class GigaChatTokenProvider {
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+
+    private volatile CachedToken cached;
+
+    @Value("${ai.api.key}")
+    private String authKey;
+
+    @Value("${ai.api.auth-url:https://ngw.devices.sberbank.ru:9443/api/v2/oauth}")
+    private String authUrl;
+
+    @Value("${ai.api.scope:GIGACHAT_API_PERS}")
+    private String scope;
+
+    // Токен считается просроченным чуть раньше, чтобы не истёк во время запроса
+    @Value("${ai.api.token.expiry-margin:PT10S}")
+    private Duration expiryMargin;
+
+    @Value("${ai.api.token.refresh-ahead:PT5M}")
+    private Duration refreshAhead;
+
+    // Используется, если сервис авторизации не вернул expires_at
+    @Value("${ai.api.token.default-ttl:PT30M}")
+    private Duration defaultTtl;
+
+    public GigaChatTokenProvider(@Qualifier("insecureRestTemplate") RestTemplate restTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.hits = Counter.builder("gigachat.token.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gigachat.token.requests").tag("result", "miss").register(meterRegistry);
+        this.refreshes = Counter.builder("gigachat.token.refreshes").tag("outcome", "success").register(meterRegistry);
+        this.refreshFailures = Counter.builder("gigachat.token.refreshes").tag("outcome", "failure").register(meterRegistry);
+    }
+
+    public String getAccessToken() {
+        CachedToken token = cached;
+        if (token != null && !isExpired(token, Instant.now())) {
+            hits.increment();
+            return token.value();
+        }
+        misses.increment();
+        return refresh(false).value();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.api.token.refresh-check-interval-ms:30000}")
+    public void refreshAhead() {
+        CachedToken token = cached;
+        if (token == null || !needsRefresh(token, Instant.now())) {
+            return;
+        }
+        try {
+            refresh(true);
+        } catch (Exception e) {
+            // Старый токен ещё действует, следующая проверка попробует снова
+            log.warn("Proactive GigaChat token refresh failed", e);
+        }
+    }
+
+    private CachedToken refresh(boolean proactive) {
+        refreshLock.lock();
+        try {
+            // Пока ждали блокировку, токен мог обновить другой поток
+            CachedToken current = cached;
+            Instant now = Instant.now();
+            if (current != null && (proactive ? !needsRefresh(current, now) : !isExpired(current, now))) {
+                return current;
+            }
+            CachedToken fresh = timedFetchToken();
+            cached = fresh;
+            refreshes.increment();
+            return fresh;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Время запроса к сервису авторизации: gigachat.token.fetch{outcome}
+    private CachedToken timedFetchToken() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            CachedToken token = fetchToken();
+            outcome = "success";
+            return token;
+        } finally {
+            sample.stop(Timer.builder("gigachat.token.fetch")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private CachedToken fetchToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Content-Type", "application/x-www-form-urlencoded");
+        headers.set("Accept", "application/json");
+        headers.set("RqUID", UUID.randomUUID().toString());
+        headers.set("Authorization", "Basic " + authKey);
+
+        String body = "scope=" + scope;
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                authUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                Map.class
+        );
+
+        Map<?, ?> responseBody = response.getBody();
+        if (responseBody == null || responseBody.get("access_token") == null) {
+            throw new IllegalStateException("GigaChat auth returned no access token");
+        }
+        Object expiresAt = responseBody.get("expires_at");
+        Instant expiry = expiresAt instanceof Number millis
+                ? Instant.ofEpochMilli(millis.longValue())
+                : Instant.now().plus(defaultTtl);
+        return new CachedToken((String) responseBody.get("access_token"), expiry);
+    }
+
+    private record CachedToken(String value, Instant expiresAt) {}
+
+    private boolean isExpired(CachedToken token, Instant now) {
+        return !now.isBefore(token.expiresAt().minus(expiryMargin));
+    }
+
+    private boolean needsRefresh(CachedToken token, Instant now) {
+        return !now.isBefore(token.expiresAt().minus(refreshAhead));
+    }
+}
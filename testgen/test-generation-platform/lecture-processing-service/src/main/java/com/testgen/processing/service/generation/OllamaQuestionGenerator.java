@@ -0,0 +1,87 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Локальная модель через Ollama (см. ollama.sh, по умолчанию mistral).
+ */
+@Component
+@ConditionalOnProperty(name = "ai.provider", havingValue = "ollama")
+public class OllamaQuestionGenerator extends ChatQuestionGenerator {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${ai.ollama.url:http://ollama:11434}")
+    private String ollamaUrl;
+
+    @Value("${ai.ollama.model:mistral}")
+    private String model;
+
+    @Value("${processing.generation.max-tokens:2000}")
+    private int maxTokens;
+
+    public OllamaQuestionGenerator(@Qualifier("llmRestTemplate") RestTemplate restTemplate,
+                                   ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    protected void stream(ArrayNode messages, ContentConsumer consumer) throws Exception {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("model", model);
+        payload.put("stream", true);
+        payload.put("format", "json");
+        payload.set("messages", messages);
+        payload.putObject("options")
+                .put("temperature", 0.1)
+                .put("num_predict", maxTokens);
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+
+        restTemplate.execute(
+                ollamaUrl + "/api/chat",
+                HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.getBody().write(body);
+                },
+                response -> {
+                    // Ollama отдаёт поток JSON-объектов, по одному на строку
+                    try (BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isBlank()) {
+                                continue;
+                            }
+                            JsonNode event = objectMapper.readTree(line);
+                            consumer.accept(event.path("message").path("content").asText(""));
+                            if (event.path("done").asBoolean(false)) {
+                                break;
+                            }
+                        }
+                    }
+                    return null;
+                }
+        );
+    }
+}
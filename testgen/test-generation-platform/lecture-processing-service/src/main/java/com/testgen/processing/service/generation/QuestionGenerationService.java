@@ -0,0 +1,160 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Генерирует вопросы по длинной лекции: текст делится на фрагменты,
+ * по каждому фрагменту параллельно запрашиваются вопросы, результаты
+ * объединяются без дубликатов и равномерно по фрагментам.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionGenerationService {
+
+    // Увеличивать при любом изменении промпта, иначе кэш вернёт вопросы старого формата
+    private static final String PROMPT_VERSION = "1";
+
+    @Autowired
+    @Qualifier("generationExecutor")
+    private AsyncTaskExecutor generationExecutor;
+
+    private final TextChunker textChunker;
+    private final QuestionGenerator questionGenerator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Запросы к LLM, выполняющиеся прямо сейчас (одинаково для пула и виртуальных потоков)
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Запрашиваем с запасом: часть вопросов отсеется валидацией и дедупликацией
+    @Value("${processing.generation.overfetch-ratio:1.5}")
+    private double overfetchRatio;
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("processing.generation.in-flight", inFlight);
+    }
+
+    /**
+     * Готовые вопросы без повторов сразу передаются в {@code onQuestion};
+     * вызывается из потоков generationExecutor.
+     */
+    public ArrayNode generateQuestions(Long lectureId, String lectureText, int questionCount,
+                                       Consumer<JsonNode> onQuestion) {
+        List<String> chunks = TextChunker.spread(textChunker.split(lectureText), questionCount);
+        if (chunks.isEmpty()) {
+            throw new IllegalArgumentException("Lecture " + lectureId + " has no text");
+        }
+        int perChunk = Math.max(1, (int) Math.ceil(questionCount * overfetchRatio / chunks.size()));
+        Set<String> forwarded = ConcurrentHashMap.newKeySet();
+        Consumer<JsonNode> forwardUnique = question -> {
+            if (forwarded.add(normalize(question.path("text").asText()))) {
+                onQuestion.accept(question);
+            }
+        };
+
+        List<CompletableFuture<ArrayNode>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> generateChunk(chunk, perChunk, forwardUnique), generationExecutor)
+                        .exceptionally(e -> {
+                            log.warn("Question generation failed for a chunk of lecture {}", lectureId, e);
+                            return null;
+                        }))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        List<ArrayNode> perChunkQuestions = new ArrayList<>();
+        for (CompletableFuture<ArrayNode> future : futures) {
+            ArrayNode questions = future.join();
+            if (questions != null) {
+                perChunkQuestions.add(questions);
+            }
+        }
+        if (perChunkQuestions.isEmpty()) {
+            throw new RuntimeException("Question generation failed for every chunk of lecture " + lectureId);
+        }
+
+        return merge(perChunkQuestions, questionCount);
+    }
+
+    // Время одного запроса к модели: processing.llm.requests{model, outcome}
+    private ArrayNode generateChunk(String chunk, int questionCount, Consumer<JsonNode> onQuestion) {
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            ArrayNode questions = questionGenerator.generate(chunk, questionCount, onQuestion);
+            outcome = "success";
+            return questions;
+        } finally {
+            sample.stop(Timer.builder("processing.llm.requests")
+                    .tag("model", questionGenerator.getModel())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public String getPromptVersion() {
+        return PROMPT_VERSION;
+    }
+
+    public String getModel() {
+        return questionGenerator.getModel();
+    }
+
+    /**
+     * Берёт вопросы по кругу из каждого фрагмента, пропуская повторы,
+     * чтобы итоговый тест покрывал всю лекцию, а не только её начало.
+     */
+    private ArrayNode merge(List<ArrayNode> perChunkQuestions, int questionCount) {
+        ArrayNode merged = objectMapper.createArrayNode();
+        Set<String> seen = new HashSet<>();
+        int[] cursors = new int[perChunkQuestions.size()];
+        boolean progressed = true;
+        while (merged.size() < questionCount && progressed) {
+            progressed = false;
+            for (int i = 0; i < perChunkQuestions.size() && merged.size() < questionCount; i++) {
+                ArrayNode questions = perChunkQuestions.get(i);
+                while (cursors[i] < questions.size()) {
+                    JsonNode question = questions.get(cursors[i]++);
+                    if (seen.add(normalize(question.path("text").asText()))) {
+                        merged.add(question);
+                        progressed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    private String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .strip();
+    }
+}
@@ -0,0 +1,25 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.util.function.Consumer;
+
+/**
+ * Бэкенд генерации вопросов. Реализация выбирается свойством {@code ai.provider}.
+ */
+public interface QuestionGenerator {
+
+    /**
+     * Имя модели; входит в ключ кэша вопросов.
+     */
+    String getModel();
+
+    /**
+     * Каждый прошедший валидацию вопрос передаётся в {@code onQuestion}
+     * сразу, как только он готов, не дожидаясь конца ответа модели.
+     *
+     * @return все прошедшие валидацию вопросы
+     */
+    ArrayNode generate(String text, int questionCount, Consumer<JsonNode> onQuestion);
+}
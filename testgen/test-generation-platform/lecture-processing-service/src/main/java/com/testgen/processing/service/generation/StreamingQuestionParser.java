@@ -0,0 +1,103 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Разбирает ответ модели вида {@code {"questions": [...]}}, приходящий
+ * по частям, и отдаёт каждый вопрос, как только закрывается его объект.
+ * Текст до первой {@code {} (например, markdown-ограждение) и после
+ * корневого объекта игнорируется.
+ */
+class StreamingQuestionParser {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<JsonNode> onQuestion;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private boolean questionsFieldSeen;
+    private int questionsDepth = -1;
+    private TokenBuffer current;
+
+    StreamingQuestionParser(ObjectMapper objectMapper, Consumer<JsonNode> onQuestion) throws IOException {
+        this.objectMapper = objectMapper;
+        this.onQuestion = onQuestion;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    void feed(String content) throws IOException {
+        if (finished || content.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int start = content.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            content = content.substring(start);
+            started = true;
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    void finish() throws IOException {
+        if (!finished) {
+            feeder.endOfInput();
+            drain();
+        }
+        parser.close();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (current != null) {
+                current.copyCurrentEvent(parser);
+            }
+
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    if (token == JsonToken.START_OBJECT && current == null && depth == questionsDepth) {
+                        current = new TokenBuffer(parser, null);
+                        current.copyCurrentEvent(parser);
+                    }
+                    if (token == JsonToken.START_ARRAY && questionsFieldSeen && depth == 1) {
+                        questionsDepth = depth + 1;
+                    }
+                    questionsFieldSeen = false;
+                    depth++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (current != null && depth == questionsDepth) {
+                        onQuestion.accept(objectMapper.readTree(current.asParser()));
+                        current = null;
+                    }
+                    if (token == JsonToken.END_ARRAY && depth + 1 == questionsDepth) {
+                        questionsDepth = -1;
+                    }
+                    if (depth == 0) {
+                        finished = true;
+                    }
+                }
+                case FIELD_NAME -> questionsFieldSeen = depth == 1 && "questions".equals(parser.currentName());
+                default -> questionsFieldSeen = false;
+            }
+        }
+    }
+}
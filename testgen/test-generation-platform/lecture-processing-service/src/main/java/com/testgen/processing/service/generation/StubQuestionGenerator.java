@@ -0,0 +1,75 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Детерминированный генератор без сетевых вызовов: строит вопросы
+ * из предложений текста. Нужен для локальной разработки и нагрузочных тестов.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ai.provider", havingValue = "stub")
+public class StubQuestionGenerator implements QuestionGenerator {
+
+    private static final int OPTIONS = 4;
+
+    private final ObjectMapper objectMapper;
+
+    // Имитация ожидания ответа модели при замерах (docs/virtual-threads.md)
+    @Value("${ai.stub.latency-ms:0}")
+    private long latencyMs;
+
+    @Override
+    public String getModel() {
+        return "stub";
+    }
+
+    @Override
+    public ArrayNode generate(String text, int questionCount, Consumer<JsonNode> onQuestion) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while simulating model latency", e);
+            }
+        }
+        List<String> sentences = Arrays.stream(text.split("(?<=[.!?])\\s+"))
+                .map(String::strip)
+                .filter(s -> !s.isEmpty())
+                .toList();
+
+        ArrayNode questions = objectMapper.createArrayNode();
+        if (sentences.isEmpty()) {
+            return questions;
+        }
+        for (int i = 0; i < questionCount; i++) {
+            int correct = i % OPTIONS;
+            ObjectNode question = questions.addObject();
+            question.put("text", "Вопрос " + (i + 1) + " по фрагменту «" + abbreviate(sentences.get(0)) + "»");
+            ArrayNode options = question.putArray("options");
+            for (int option = 0; option < OPTIONS; option++) {
+                String sentence = sentences.get((i + option) % sentences.size());
+                options.add(option == correct ? sentence : "Неверно: " + sentence);
+            }
+            question.put("correctAnswer", correct);
+            onQuestion.accept(question);
+        }
+        return questions;
+    }
+
+    private String abbreviate(String sentence) {
+        return sentence.length() <= 40 ? sentence : sentence.substring(0, 40) + "…";
+    }
+}
@@ -0,0 +1,109 @@
+package com.testgen.processing.service.generation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Делит текст лекции на смысловые фрагменты: границы проходят по заголовкам
+ * и абзацам, размер фрагмента ограничен бюджетом токенов.
+ */
+@Component
+public class TextChunker {
+
+    private static final Pattern NUMBERED_HEADING = Pattern.compile("^(\\d+(\\.\\d+)*[.)]?|[IVXLC]+\\.)\\s+\\S.*");
+    private static final int MAX_HEADING_LENGTH = 80;
+
+    @Value("${processing.generation.chunk-tokens:3000}")
+    private int chunkTokens;
+
+    @Value("${processing.generation.chars-per-token:4}")
+    private int charsPerToken;
+
+    public List<String> split(String text) {
+        int budget = chunkTokens * charsPerToken;
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean paragraphBreak = true;
+
+        for (String line : text.split("\\R")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) {
+                paragraphBreak = true;
+                continue;
+            }
+
+            boolean heading = isHeading(trimmed, paragraphBreak);
+            boolean overBudget = current.length() + trimmed.length() + 1 > budget;
+            // Заголовок начинает новый фрагмент, если текущий уже достаточно наполнен
+            if (overBudget || (heading && current.length() >= budget / 2)) {
+                flush(chunks, current);
+            } else if (paragraphBreak && current.length() > 0) {
+                current.append('\n');
+            }
+
+            if (trimmed.length() > budget) {
+                for (String piece : splitLongLine(trimmed, budget)) {
+                    flush(chunks, current);
+                    current.append(piece).append('\n');
+                }
+            } else {
+                current.append(trimmed).append('\n');
+            }
+            paragraphBreak = false;
+        }
+        flush(chunks, current);
+        return chunks;
+    }
+
+    /**
+     * Оставляет не больше {@code limit} фрагментов, равномерно по всей лекции:
+     * вопросов в тесте всё равно не больше limit, и запросы по лишним фрагментам
+     * дали бы вопросы, которые при слиянии не попадут в тест.
+     */
+    public static List<String> spread(List<String> chunks, int limit) {
+        if (limit <= 0 || chunks.size() <= limit) {
+            return chunks;
+        }
+        List<String> selected = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            // Середина i-го из limit равных отрезков
+            selected.add(chunks.get((int) ((i + 0.5) * chunks.size() / limit)));
+        }
+        return selected;
+    }
+
+    private boolean isHeading(String line, boolean afterBreak) {
+        if (line.length() > MAX_HEADING_LENGTH) {
+            return false;
+        }
+        if (NUMBERED_HEADING.matcher(line).matches()) {
+            return true;
+        }
+        char last = line.charAt(line.length() - 1);
+        return afterBreak && Character.isUpperCase(line.charAt(0)) && ".,;:!?".indexOf(last) < 0;
+    }
+
+    private List<String> splitLongLine(String line, int budget) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        while (line.length() - start > budget) {
+            int end = line.lastIndexOf(". ", start + budget);
+            end = end > start ? end + 1 : start + budget;
+            pieces.add(line.substring(start, end).strip());
+            start = end;
+        }
+        pieces.add(line.substring(start).strip());
+        return pieces;
+    }
+
+    private void flush(List<String> chunks, StringBuilder current) {
+        if (!current.isEmpty()) {
+            chunks.add(current.toString().strip());
+            current.setLength(0);
+        }
+    }
+}
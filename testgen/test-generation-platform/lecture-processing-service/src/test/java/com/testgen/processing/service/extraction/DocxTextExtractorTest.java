@@ -0,0 +1,90 @@
+package com.testgen.processing.service.extraction;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocxTextExtractorTest {
+
+    private final DocxTextExtractor extractor = new DocxTextExtractor();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void streamsParagraphsInOrder() throws IOException {
+        Path file = docx("Первый абзац", "Второй абзац");
+        List<String> chunks = new ArrayList<>();
+
+        extractor.extract(file, chunks::add);
+
+        assertThat(chunks).containsExactly("Первый абзац\n", "Второй абзац\n");
+    }
+
+    @Test
+    void keepsTabsAndLineBreaksInsideParagraph() throws IOException {
+        Path file = dir.resolve("runs.docx");
+        try (XWPFDocument doc = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            XWPFRun run = doc.createParagraph().createRun();
+            run.setText("a");
+            run.addTab();
+            run.setText("b");
+            run.addBreak();
+            run.setText("c");
+            doc.write(out);
+        }
+        StringBuilder text = new StringBuilder();
+
+        extractor.extract(file, chunk -> {
+            text.append(chunk);
+            return true;
+        });
+
+        assertThat(text.toString()).isEqualTo("a\tb\nc\n");
+    }
+
+    @Test
+    void stopsAsSoonAsSinkDeclines() throws IOException {
+        Path file = docx("один", "два", "три");
+        List<String> chunks = new ArrayList<>();
+
+        extractor.extract(file, chunk -> {
+            chunks.add(chunk);
+            return chunks.size() < 2;
+        });
+
+        assertThat(chunks).containsExactly("один\n", "два\n");
+    }
+
+    @Test
+    void splitsVeryLongParagraph() throws IOException {
+        Path file = docx("x".repeat(20_000));
+        List<String> chunks = new ArrayList<>();
+
+        extractor.extract(file, chunks::add);
+
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(8192 + 1));
+        assertThat(String.join("", chunks)).isEqualTo("x".repeat(20_000) + "\n");
+    }
+
+    private Path docx(String... paragraphs) throws IOException {
+        Path file = dir.resolve("lecture.docx");
+        try (XWPFDocument doc = new XWPFDocument(); OutputStream out = Files.newOutputStream(file)) {
+            for (String paragraph : paragraphs) {
+                doc.createParagraph().createRun().setText(paragraph);
+            }
+            doc.write(out);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,74 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatQuestionGeneratorTest {
+
+    private static final String VALID = "{\"question\": \"Q1\", \"options\": [\"a\", \"b\"], \"correctAnswer\": 1}";
+    private static final String OUT_OF_RANGE = "{\"question\": \"Q2\", \"options\": [\"a\", \"b\"], \"correctAnswer\": 2}";
+
+    @Test
+    void returnsValidQuestionsOnly() {
+        List<JsonNode> streamed = new ArrayList<>();
+        ArrayNode questions = generator(List.of("{\"questions\": [", VALID, ", ", OUT_OF_RANGE, "]}"), false)
+                .generate("text", 2, streamed::add);
+
+        assertThat(questions).hasSize(1);
+        assertThat(streamed).containsExactly(questions.get(0));
+    }
+
+    @Test
+    void keepsParsedQuestionsWhenStreamBreaksOff() {
+        ArrayNode questions = generator(List.of("{\"questions\": [", VALID, ", {\"question\": \"Q"), true)
+                .generate("text", 2, question -> { });
+
+        assertThat(questions).hasSize(1);
+        assertThat(questions.get(0).get("question").asText()).isEqualTo("Q1");
+    }
+
+    @Test
+    void keepsParsedQuestionsWhenResponseIsTruncated() {
+        ArrayNode questions = generator(List.of("{\"questions\": [", VALID, ", {\"question\""), false)
+                .generate("text", 2, question -> { });
+
+        assertThat(questions).hasSize(1);
+    }
+
+    @Test
+    void failsWhenNothingWasParsed() {
+        ChatQuestionGenerator generator = generator(List.of("{\"questions\": [{\"quest"), true);
+
+        assertThatThrownBy(() -> generator.generate("text", 2, question -> { }))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    // Отдаёт ответ заданными фрагментами; broken — соединение обрывается после последнего
+    private static ChatQuestionGenerator generator(List<String> fragments, boolean broken) {
+        return new ChatQuestionGenerator(new ObjectMapper()) {
+            @Override
+            protected void stream(ArrayNode messages, ContentConsumer consumer) throws Exception {
+                for (String fragment : fragments) {
+                    consumer.accept(fragment);
+                }
+                if (broken) {
+                    throw new IOException("Connection reset");
+                }
+            }
+
+            @Override
+            public String getModel() {
+                return "test";
+            }
+        };
+    }
+}
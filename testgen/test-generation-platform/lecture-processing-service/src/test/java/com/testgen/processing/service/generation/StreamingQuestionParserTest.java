@@ -0,0 +1,68 @@
+package com.testgen.processing.service.generation;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingQuestionParserTest {
+
+    private static final String FIRST = "{\"question\": \"Q1\", \"options\": [\"a\", \"b\"], \"correctAnswer\": 0}";
+    private static final String SECOND = "{\"question\": \"Q2\", \"options\": [\"a\", \"b\"], \"correctAnswer\": 1}";
+
+    private final List<JsonNode> questions = new ArrayList<>();
+
+    @Test
+    void emitsEachQuestionAsSoonAsItsObjectCloses() throws Exception {
+        StreamingQuestionParser parser = parser();
+        String response = "{\"questions\": [" + FIRST + ", " + SECOND + "]}";
+        int firstEnd = response.indexOf(FIRST) + FIRST.length();
+
+        parser.feed(response.substring(0, firstEnd - 1));
+        assertThat(questions).isEmpty();
+        parser.feed(response.substring(firstEnd - 1, firstEnd));
+        assertThat(questions).hasSize(1);
+        parser.feed(response.substring(firstEnd));
+        parser.finish();
+
+        assertThat(questions).extracting(q -> q.get("question").asText()).containsExactly("Q1", "Q2");
+    }
+
+    @Test
+    void ignoresTextAroundRootObject() throws Exception {
+        StreamingQuestionParser parser = parser();
+        parser.feed("```json\n{\"questions\": [" + FIRST + "]}");
+        parser.feed("\n```\nГотово!");
+        parser.finish();
+
+        assertThat(questions).hasSize(1);
+    }
+
+    @Test
+    void ignoresObjectsOutsideQuestionsArray() throws Exception {
+        StreamingQuestionParser parser = parser();
+        parser.feed("{\"meta\": {\"count\": 1}, \"questions\": [" + FIRST + "], \"other\": [" + SECOND + "]}");
+        parser.finish();
+
+        assertThat(questions).extracting(q -> q.get("question").asText()).containsExactly("Q1");
+    }
+
+    @Test
+    void keepsQuestionsParsedBeforeBrokenTail() throws Exception {
+        StreamingQuestionParser parser = parser();
+        parser.feed("{\"questions\": [" + FIRST + ", {\"question\": \"Q2\", \"opt");
+
+        assertThatThrownBy(parser::finish).isInstanceOf(JsonParseException.class);
+        assertThat(questions).extracting(q -> q.get("question").asText()).containsExactly("Q1");
+    }
+
+    private StreamingQuestionParser parser() throws Exception {
+        return new StreamingQuestionParser(new ObjectMapper(), questions::add);
+    }
+}
@@ -0,0 +1,77 @@
+package com.testgen.processing.service.generation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextChunkerTest {
+
+    private final TextChunker chunker = new TextChunker();
+
+    @BeforeEach
+    void setUp() {
+        // Бюджет фрагмента — 100 символов
+        ReflectionTestUtils.setField(chunker, "chunkTokens", 25);
+        ReflectionTestUtils.setField(chunker, "charsPerToken", 4);
+    }
+
+    @Test
+    void keepsShortTextInOneChunk() {
+        assertThat(chunker.split("Первая строка.\nВторая строка.")).containsExactly("Первая строка.\nВторая строка.");
+    }
+
+    @Test
+    void startsNewChunkAtHeadingWhenCurrentIsHalfFull() {
+        String section = "x".repeat(60) + ".";
+        List<String> chunks = chunker.split("1. Введение\n" + section + "\n\n2. Основы\n" + section);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).startsWith("1. Введение");
+        assertThat(chunks.get(1)).startsWith("2. Основы");
+    }
+
+    @Test
+    void keepsHeadingWithShortPrecedingText() {
+        List<String> chunks = chunker.split("Коротко.\n\n2. Основы\nТекст.");
+
+        assertThat(chunks).hasSize(1);
+    }
+
+    @Test
+    void splitsAtParagraphsWhenOverBudget() {
+        String paragraph = "y".repeat(70) + ".";
+        List<String> chunks = chunker.split(paragraph + "\n\n" + paragraph + "\n\n" + paragraph);
+
+        assertThat(chunks).hasSize(3).allSatisfy(chunk -> assertThat(chunk).hasSizeLessThanOrEqualTo(100));
+    }
+
+    @Test
+    void splitsLongLineAtSentenceEnds() {
+        String sentence = "z".repeat(59) + ". ";
+        List<String> chunks = chunker.split((sentence + sentence + sentence).strip());
+
+        assertThat(chunks).hasSize(3).allSatisfy(chunk -> assertThat(chunk).endsWith("."));
+    }
+
+    @Test
+    void spreadKeepsChunksWithinLimit() {
+        List<String> chunks = List.of("a", "b", "c");
+
+        assertThat(TextChunker.spread(chunks, 3)).isSameAs(chunks);
+        assertThat(TextChunker.spread(chunks, 0)).isSameAs(chunks);
+    }
+
+    @Test
+    void spreadPicksEvenlySpacedChunks() {
+        List<String> chunks = IntStream.range(0, 10).mapToObj(String::valueOf).toList();
+
+        assertThat(TextChunker.spread(chunks, 2)).containsExactly("2", "7");
+        assertThat(TextChunker.spread(chunks, 5)).containsExactly("1", "3", "5", "7", "9");
+        assertThat(TextChunker.spread(chunks, 1)).containsExactly("5");
+    }
+}
@@ -1,10 +1,17 @@
 package com.testgen.lecture.config;
 
+import com.testgen.lecture.service.MinioMultipartClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class MinioConfig {
 
@@ -18,10 +25,28 @@ public class MinioConfig {
     private String secretKey;
 
     @Bean
-    public MinioClient minioClient() {
+    public MinioClient minioClient(MeterRegistry meterRegistry) {
         return MinioClient.builder()
                 .endpoint(minioUrl)
                 .credentials(accessKey, secretKey)
+                .httpClient(httpClient(meterRegistry))
+                .build();
+    }
+
+    @Bean
+    public MinioMultipartClient minioMultipartClient(MeterRegistry meterRegistry) {
+        return new MinioMultipartClient(MinioAsyncClient.builder()
+                .endpoint(minioUrl)
+                .credentials(accessKey, secretKey)
+                .httpClient(httpClient(meterRegistry))
+                .build());
+    }
+
+    // Таймауты как у клиента MinIO по умолчанию
+    private static OkHttpClient httpClient(MeterRegistry meterRegistry) {
+        long timeout = TimeUnit.MINUTES.toMillis(5);
+        return HttpUtils.newDefaultHttpClient(timeout, timeout, timeout).newBuilder()
+                .addInterceptor(new MinioMetricsInterceptor(meterRegistry))
                 .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.testgen.lecture.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+    public static final String TEST_EXCHANGE = "test-generation";
+    public static final String PROCESS_QUEUE = "process.request";
+
+    @Bean
+    public DirectExchange testGenerationExchange() {
+        return new DirectExchange(TEST_EXCHANGE);
+    }
+
+    // Очередь объявляется и здесь: без неё брокер молча отбросит сообщения outbox,
+    // если lecture-processing-service ещё ни разу не запускался. Аргументы совпадают с его объявлением
+    @Bean
+    public Queue processQueue() {
+        return new Queue(PROCESS_QUEUE, true);
+    }
+
+    @Bean
+    public Binding processQueueBinding(Queue processQueue, DirectExchange testGenerationExchange) {
+        return BindingBuilder.bind(processQueue).to(testGenerationExchange).with(PROCESS_QUEUE);
+    }
+}
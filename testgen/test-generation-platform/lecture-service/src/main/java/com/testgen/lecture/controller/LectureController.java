@@ -4,16 +4,22 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.testgen.lecture.model.Lecture;
+import com.testgen.lecture.model.LectureFile;
 import com.testgen.lecture.service.LectureService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/lectures")
@@ -23,6 +29,9 @@ public class LectureController {
     private final LectureService lectureService;
     private final ObjectMapper objectMapper;
 
+    @Value("${lecture.download.max-age-seconds:3600}")
+    private long downloadMaxAgeSeconds;
+
     @PostMapping(consumes = {"multipart/form-data"})
     public ResponseEntity<Lecture> createLecture(
             @RequestPart("lecture") String lecture,
@@ -32,23 +41,71 @@ public class LectureController {
             return ResponseEntity.ok(lectureService.createLecture(lectureObject, file));
         } catch (JsonMappingException e) {
             e.printStackTrace();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
         }
         return ResponseEntity.badRequest().build();
     }
 
+    // Файл передаётся телом запроса как есть и по частям уходит в MinIO без буферизации на диске;
+    // автор лекции берётся из X-User-Id, который выставляет шлюз
+    @PostMapping("/stream")
+    public ResponseEntity<Lecture> createLectureStreaming(
+            @RequestHeader("X-User-Id") Long teacherId,
+            @RequestParam String title,
+            @RequestParam String description,
+            @RequestParam String fileName,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        Lecture lecture = new Lecture();
+        lecture.setTitle(title);
+        lecture.setDescription(description);
+        lecture.setTeacherId(teacherId);
+        try {
+            return ResponseEntity.ok(lectureService.createLecture(lecture, fileName, contentType, body));
+        } catch (RejectedExecutionException e) {
+            // Все буферы загрузки заняты
+            return serviceUnavailable();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Lecture> getLecture(@PathVariable Long id) {
         return ResponseEntity.ok(lectureService.getLecture(id));
     }
 
+    // Файл лекции через сервис: Range для докачки, ETag/Last-Modified для ответов 304
+    @GetMapping("/{id}/file")
+    public ResponseEntity<StreamingResponseBody> downloadLectureFile(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest request) {
+        LectureFile file = lectureService.getLectureFile(id);
+        if (request.checkNotModified(file.etag(), file.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(downloadMaxAgeSeconds)).cachePrivate();
+        return LectureFileResponse.of(file, range, ifRange, cacheControl,
+                (offset, length) -> lectureService.openLectureFile(file, offset, length));
+    }
+
+    // Списки отдаются страницами по id: следующая запрашивается с after = id последнего элемента
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<Lecture>> getLecturesByTeacherId(@PathVariable Long teacherId) {
-        return ResponseEntity.ok(lectureService.getLecturesByTeacherId(teacherId));
+    public ResponseEntity<StreamingResponseBody> getLecturesByTeacherId(
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return JsonArrayResponse.of(objectMapper,
+                sink -> lectureService.streamLecturesByTeacherId(teacherId, after, limit, sink));
     }
 
     @GetMapping
-    public ResponseEntity<Page<Lecture>> getAllLectures(@PageableDefault(size = 10) Pageable pageable) {
-        return ResponseEntity.ok(lectureService.getAllLectures(pageable));
+    public ResponseEntity<StreamingResponseBody> getAllLectures(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return JsonArrayResponse.of(objectMapper,
+                sink -> lectureService.streamAllLectures(after, limit, sink));
     }
 
     @PutMapping("/{id}")
@@ -65,4 +122,10 @@ public class LectureController {
         lectureService.deleteLecture(id, userId, role);
         return ResponseEntity.noContent().build();
     }
+
+    private static <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.testgen.lecture.controller;
+
+import com.testgen.lecture.model.LectureFile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Ответ с файлом лекции: поддерживает один диапазон Range (206) и If-Range,
+ * тело читается из MinIO только в запрошенных границах и сразу пишется в ответ.
+ */
+final class LectureFileResponse {
+
+    interface Opener {
+        InputStream open(long offset, long length);
+    }
+
+    private LectureFileResponse() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(LectureFile file, String range, String ifRange,
+                                                    CacheControl cacheControl, Opener opener) {
+        long size = file.size();
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+
+        // Несколько диапазонов и устаревший If-Range — отдаём файл целиком
+        if (range != null && (ifRange == null || matchesEtag(ifRange, file.etag()))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    partial = true;
+                } catch (IllegalArgumentException e) {
+                    return rangeNotSatisfiable(size);
+                }
+                // HttpRange не отклоняет начало за концом файла, а обрезает конец до size - 1
+                if (start >= size) {
+                    return rangeNotSatisfiable(size);
+                }
+            }
+        }
+
+        long offset = start;
+        long length = end - start + 1;
+        StreamingResponseBody body = out -> {
+            if (length <= 0) {
+                return;
+            }
+            try (InputStream in = opener.open(offset, length)) {
+                in.transferTo(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(file.etag())
+                .lastModified(file.lastModified())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(file.fileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(file.contentType() != null
+                        ? MediaType.parseMediaType(file.contentType())
+                        : MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Math.max(length, 0));
+        if (partial) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        return builder.body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
+
+    private static boolean matchesEtag(String ifRange, String etag) {
+        String value = ifRange.trim();
+        return value.equals("\"" + etag + "\"") || value.equals(etag);
+    }
+}
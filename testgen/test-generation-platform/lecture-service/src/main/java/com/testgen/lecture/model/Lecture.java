@@ -1,13 +1,15 @@
 package com.testgen.lecture.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lectures")
+@Table(name = "lectures", indexes = @Index(name = "ix_lectures_teacher", columnList = "teacher_id, id"))
 @Data
 @NoArgsConstructor
 public class Lecture {
@@ -30,6 +32,21 @@ public class Lecture {
     @Column(nullable = false)
     private Long teacherId;
 
+    // Считаются при загрузке; у лекций, загруженных раньше, пустые
+    private Long fileSize;
+
+    @Column(length = 64)
+    private String fileSha256;
+
+    // Задача генерации, поставленная при загрузке: по ней клиент следит за статусом, а не запускает вторую
+    @Column(length = 36)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String processingJobId;
+
+    // Момент постановки задачи в outbox (UTC): клиент по нему понимает, что задача уже потеряна
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant processingQueuedAt;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
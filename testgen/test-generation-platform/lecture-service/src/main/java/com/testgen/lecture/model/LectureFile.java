@@ -0,0 +1,15 @@
+package com.testgen.lecture.model;
+
+import java.time.Instant;
+
+/**
+ * Метаданные файла лекции в MinIO для отдачи клиенту.
+ */
+public record LectureFile(
+    String objectName,
+    String fileName,
+    long size,
+    String etag,
+    Instant lastModified,
+    String contentType
+) {}
@@ -0,0 +1,15 @@
+package com.testgen.lecture.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция лекции для списков.
+ */
+public interface LectureSummary {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getFileName();
+    Long getTeacherId();
+    LocalDateTime getCreatedAt();
+}
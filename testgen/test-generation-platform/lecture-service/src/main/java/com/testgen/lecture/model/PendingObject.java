@@ -0,0 +1,23 @@
+package com.testgen.lecture.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Объект в MinIO, на который не ссылается ни одна лекция: загрузка ещё идёт
+ * или не завершилась, либо лекция удалена. После deleteAfter объект удаляется.
+ */
+@Entity
+@Table(name = "pending_objects", indexes = @Index(name = "ix_pending_objects_delete_after", columnList = "delete_after"))
+@Data
+@NoArgsConstructor
+public class PendingObject {
+    @Id
+    private String objectName;
+
+    @Column(name = "delete_after", nullable = false)
+    private Instant deleteAfter;
+}
@@ -0,0 +1,14 @@
+package com.testgen.lecture.model;
+
+import lombok.Data;
+
+// Сообщение очереди process.request, формат совпадает с lecture-processing-service
+@Data
+public class TestGenerationRequest {
+    private String jobId;
+    private Long lectureId;
+    private String filePath;
+    private String fileSha256;
+    private Integer questionCount;
+    private Long generation;
+}
@@ -0,0 +1,6 @@
+package com.testgen.lecture.model;
+
+/**
+ * Размер и SHA-256 (hex) файла, посчитанные во время загрузки в MinIO.
+ */
+public record UploadedFile(long size, String sha256) {}
@@ -1,15 +1,22 @@
 package com.testgen.lecture.repository;
 
 import com.testgen.lecture.model.Lecture;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.testgen.lecture.model.LectureSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LectureRepository extends JpaRepository<Lecture, Long> {
-    List<Lecture> findByTeacherId(Long teacherId);
-    Page<Lecture> findAll(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<LectureSummary> findByTeacherIdAndIdGreaterThanOrderByIdAsc(Long teacherId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<LectureSummary> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.testgen.lecture.repository;
+
+import com.testgen.lecture.model.PendingObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PendingObjectRepository extends JpaRepository<PendingObject, String> {
+
+    @Query(value = "SELECT * FROM pending_objects WHERE delete_after <= :now "
+            + "ORDER BY delete_after LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PendingObject> lockExpired(@Param("now") Instant now, @Param("limit") int limit);
+}
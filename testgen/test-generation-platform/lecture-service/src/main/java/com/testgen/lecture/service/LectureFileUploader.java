@@ -0,0 +1,193 @@
+package com.testgen.lecture.service;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.testgen.lecture.model.UploadedFile;
+import io.minio.PutObjectArgs;
+import io.minio.messages.Part;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Потоковая загрузка файла в MinIO: поток читается частями фиксированного размера,
+ * каждая часть сразу отправляется через multipart upload, пока читается следующая.
+ * Буферы берутся из общего {@link UploadBufferPool}: на загрузку не больше
+ * max-concurrent-parts + 1, на диск ничего не пишется.
+ */
+@Component
+@RequiredArgsConstructor
+public class LectureFileUploader {
+
+    private final MinioMultipartClient minioMultipartClient;
+    private final UploadBufferPool bufferPool;
+
+    @Value("${minio.bucket}")
+    private String bucketName;
+
+    @Value("${minio.upload.max-concurrent-parts:4}")
+    private int maxConcurrentParts;
+
+    @Value("${minio.upload.max-size-bytes:1073741824}")
+    private long maxSize;
+
+    /**
+     * @throws RejectedExecutionException если в пуле нет свободных буферов
+     */
+    public UploadedFile upload(String objectName, String contentType, InputStream input) throws IOException {
+        List<byte[]> owned = new ArrayList<>();
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        owned.add(bufferPool.acquire());
+        try {
+            return upload(objectName, contentType, input, owned, parts);
+        } finally {
+            // В пул буферы возвращаются, только когда ни одна часть их больше не читает
+            CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                    .whenComplete((ignored, e) -> owned.forEach(bufferPool::release));
+        }
+    }
+
+    private UploadedFile upload(String objectName, String contentType, InputStream input,
+                                List<byte[]> owned, List<CompletableFuture<Part>> parts) throws IOException {
+        int size = bufferPool.bufferSize();
+        MessageDigest digest = sha256();
+
+        byte[] buffer = owned.get(0);
+        int filled = readPart(input, buffer, digest);
+        long total = filled;
+        if (filled < size) {
+            // Файл меньше одной части — обычный PUT без multipart upload
+            putSingle(objectName, contentType, buffer, filled);
+            return new UploadedFile(total, HexFormat.of().formatHex(digest.digest()));
+        }
+
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null) {
+            headers.put("Content-Type", contentType);
+        }
+        String uploadId = await(call(() -> minioMultipartClient.createUpload(bucketName, objectName, headers)));
+
+        BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(maxConcurrentParts + 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            int partNumber = 1;
+            while (filled > 0) {
+                if (total > maxSize) {
+                    throw new MaxUploadSizeExceededException(maxSize);
+                }
+                if (failure.get() != null) {
+                    break;
+                }
+                byte[] data = buffer;
+                int length = filled;
+                int number = partNumber++;
+                parts.add(call(() -> minioMultipartClient.uploadPart(bucketName, objectName, uploadId, number, data, length))
+                        .whenComplete((part, e) -> {
+                            if (e != null) {
+                                failure.compareAndSet(null, e);
+                            }
+                            freeBuffers.offer(data);
+                        }));
+
+                // Следующий буфер: из пула, пока не достигнут предел и пул не пуст, иначе ждём свой освободившийся
+                byte[] next = owned.size() <= maxConcurrentParts ? bufferPool.tryAcquire() : null;
+                if (next != null) {
+                    owned.add(next);
+                    buffer = next;
+                } else {
+                    buffer = freeBuffers.take();
+                }
+                filled = readPart(input, buffer, digest);
+                total += filled;
+            }
+
+            Part[] completed = new Part[parts.size()];
+            for (int i = 0; i < completed.length; i++) {
+                completed[i] = await(parts.get(i));
+            }
+            await(call(() -> minioMultipartClient.completeUpload(bucketName, objectName, uploadId, completed)));
+            return new UploadedFile(total, HexFormat.of().formatHex(digest.digest()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(objectName, uploadId);
+            throw new IOException("Upload interrupted: " + objectName, e);
+        } catch (IOException | RuntimeException e) {
+            abort(objectName, uploadId);
+            throw e;
+        }
+    }
+
+    private void putSingle(String objectName, String contentType, byte[] data, int length) throws IOException {
+        PutObjectArgs.Builder args = PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .stream(new ByteArrayInputStream(data, 0, length), length, -1);
+        if (contentType != null) {
+            args.contentType(contentType);
+        }
+        await(call(() -> minioMultipartClient.putObject(args.build())));
+    }
+
+    private void abort(String objectName, String uploadId) {
+        try {
+            minioMultipartClient.abortUpload(bucketName, objectName, uploadId);
+        } catch (Exception ignored) {
+            // Незавершённые загрузки MinIO удаляет сам по истечении срока
+        }
+    }
+
+    /**
+     * Читает поток, пока буфер не заполнится или поток не закончится.
+     */
+    private static int readPart(InputStream input, byte[] buffer, MessageDigest digest) throws IOException {
+        int filled = input.readNBytes(buffer, 0, buffer.length);
+        digest.update(buffer, 0, filled);
+        return filled;
+    }
+
+    private interface MinioCall<T> {
+        CompletableFuture<T> call() throws Exception;
+    }
+
+    private static <T> CompletableFuture<T> call(MinioCall<T> call) throws IOException {
+        try {
+            return call.call();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
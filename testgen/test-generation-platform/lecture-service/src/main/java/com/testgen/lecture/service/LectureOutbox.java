@@ -0,0 +1,123 @@
+package com.testgen.lecture.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testgen.lecture.config.RabbitConfig;
+import com.testgen.lecture.model.Lecture;
+import com.testgen.lecture.model.OutboxEvent;
+import com.testgen.lecture.model.TestGenerationRequest;
+import com.testgen.lecture.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox: события пишутся в outbox_events вместе с лекцией,
+ * а фоновый relay пачками публикует их в RabbitMQ с publisher confirms
+ * и удаляет только подтверждённые брокером.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LectureOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueProcessing(Lecture lecture) {
+        TestGenerationRequest request = new TestGenerationRequest();
+        request.setJobId(UUID.randomUUID().toString());
+        request.setLectureId(lecture.getId());
+        request.setFilePath(lecture.getFilePath());
+        request.setFileSha256(lecture.getFileSha256());
+        request.setGeneration(System.currentTimeMillis());
+        lecture.setProcessingJobId(request.getJobId());
+        lecture.setProcessingQueuedAt(Instant.now());
+
+        OutboxEvent event = new OutboxEvent();
+        event.setRoutingKey(RabbitConfig.PROCESS_QUEUE);
+        event.setCreatedAt(Instant.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize processing request", e);
+        }
+        outboxEventRepository.save(event);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            // События остаются в таблице и уйдут при следующем запуске
+            log.warn("Outbox relay failed, will retry", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        // Публикация пачки вместе с ожиданием подтверждений: messaging.publish{exchange, outcome}
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxEvent event : events) {
+                    operations.convertAndSend(RabbitConfig.TEST_EXCHANGE, event.getRoutingKey(), event.getPayload());
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("messaging.publish")
+                    .tag("exchange", RabbitConfig.TEST_EXCHANGE)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        recordLag(events);
+        outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+
+    // Сколько событие пролежало в outbox до подтверждения брокером
+    private void recordLag(List<OutboxEvent> events) {
+        Timer lag = Timer.builder("outbox.lag")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Instant now = Instant.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package com.testgen.lecture.service;
 
 import com.testgen.lecture.model.Lecture;
+import com.testgen.lecture.model.LectureFile;
+import com.testgen.lecture.model.LectureSummary;
+import com.testgen.lecture.model.UploadedFile;
 import com.testgen.lecture.repository.LectureRepository;
 
 import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
-import io.minio.RemoveObjectArgs;
-import io.minio.SetBucketPolicyArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.InsufficientDataException;
 import io.minio.errors.InternalException;
@@ -18,17 +21,22 @@ import io.minio.errors.XmlParserException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -36,10 +44,23 @@ public class LectureService {
 
     private final LectureRepository lectureRepository;
     private final MinioClient minioClient;
+    private final LectureFileUploader lectureFileUploader;
+    private final LectureOutbox lectureOutbox;
+    private final ObjectCleanup objectCleanup;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${minio.bucket}")
     private String bucketName;
 
+    @Value("${lecture.processing.auto-generate:true}")
+    private boolean autoGenerate;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
+
     @PostConstruct
     public void initBucket() {
         try {
@@ -48,28 +69,12 @@ public class LectureService {
                     .bucket(bucketName)
                     .build());
             if (!exists) {
+                // Бакет закрытый: файлы отдаются только через GET /api/lectures/{id}/file.
+                // В старых установках публичную политику нужно снять вручную: mc anonymous set none <alias>/lectures
                 minioClient.makeBucket(
                     MakeBucketArgs.builder()
                         .bucket(bucketName)
                         .build());
-                String publicReadPolicy = """
-                {
-                    "Version": "2012-10-17",
-                    "Statement": [
-                        {
-                            "Effect": "Allow",
-                            "Principal": "*",
-                            "Action": ["s3:GetObject"],
-                            "Resource": ["arn:aws:s3:::%s/*"]
-                        }
-                    ]
-                }
-                """.formatted(bucketName);
-                minioClient.setBucketPolicy(
-                    SetBucketPolicyArgs.builder()
-                        .bucket(bucketName)
-                        .config(publicReadPolicy)
-                        .build());
             }
         } catch (Exception e) {
             throw new IllegalStateException("Failed to initialize MinIO bucket", e);
@@ -77,25 +82,40 @@ public class LectureService {
     }
 
     public Lecture createLecture(Lecture lecture, MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            return createLecture(lecture, file.getOriginalFilename(), file.getContentType(), input);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file", e);
+        }
+    }
+
+    public Lecture createLecture(Lecture lecture, String originalFileName, String contentType, InputStream input) {
         try {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
+            String fileName = UUID.randomUUID().toString() + "_" + originalFileName;
             String filePath = "lectures/" + fileName;
 
-            minioClient.putObject(
-                PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(filePath)
-                    .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(file.getContentType())
-                    .build()
-            );
+            // Если лекция не сохранится, объект будет удалён по истечении срока загрузки
+            objectCleanup.registerUpload(filePath);
+            UploadedFile uploaded = lectureFileUploader.upload(filePath, contentType, input);
 
             lecture.setFilePath(filePath);
-            lecture.setFileName(file.getOriginalFilename());
+            lecture.setFileName(originalFileName);
+            lecture.setFileSize(uploaded.size());
+            lecture.setFileSha256(uploaded.sha256());
             lecture.setCreatedAt(LocalDateTime.now());
             lecture.setUpdatedAt(LocalDateTime.now());
 
-            return lectureRepository.save(lecture);
+            // Лекция, снятие отметки об объекте и запрос на генерацию теста — одной транзакцией
+            return transactionTemplate.execute(status -> {
+                Lecture saved = lectureRepository.save(lecture);
+                objectCleanup.confirmUpload(filePath);
+                if (autoGenerate) {
+                    lectureOutbox.enqueueProcessing(saved);
+                }
+                return saved;
+            });
+        } catch (MaxUploadSizeExceededException | RejectedExecutionException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload file", e);
         }
@@ -106,12 +126,58 @@ public class LectureService {
                 .orElseThrow(() -> new RuntimeException("Lecture not found"));
     }
 
-    public List<Lecture> getLecturesByTeacherId(Long teacherId) {
-        return lectureRepository.findByTeacherId(teacherId);
+    public LectureFile getLectureFile(Long id) {
+        Lecture lecture = getLecture(id);
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(lecture.getFilePath())
+                    .build());
+            // Строгий ETag по SHA-256 содержимого; у старых лекций — ETag объекта в MinIO
+            String etag = lecture.getFileSha256() != null ? lecture.getFileSha256() : stat.etag();
+            return new LectureFile(
+                lecture.getFilePath(),
+                lecture.getFileName(),
+                stat.size(),
+                etag,
+                stat.lastModified().toInstant(),
+                stat.contentType()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read lecture file", e);
+        }
     }
 
-    public Page<Lecture> getAllLectures(Pageable pageable) {
-        return lectureRepository.findAll(pageable);
+    public InputStream openLectureFile(LectureFile file, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(file.objectName())
+                    .offset(offset)
+                    .length(length)
+                    .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read lecture file", e);
+        }
+    }
+
+    // Keyset-пагинация по id: after — id последней полученной лекции
+    @Transactional(readOnly = true)
+    public void streamLecturesByTeacherId(Long teacherId, Long after, Integer limit, Consumer<? super LectureSummary> sink) {
+        try (Stream<LectureSummary> lectures = lectureRepository.findByTeacherIdAndIdGreaterThanOrderByIdAsc(
+                teacherId, cursor(after), limit(limit))) {
+            lectures.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllLectures(Long after, Integer limit, Consumer<? super LectureSummary> sink) {
+        try (Stream<LectureSummary> lectures = lectureRepository.findByIdGreaterThanOrderByIdAsc(
+                cursor(after), limit(limit))) {
+            lectures.forEach(sink);
+        }
     }
 
     public Lecture updateLecture(Long id, Lecture lecture) {
@@ -133,16 +199,18 @@ public class LectureService {
             throw new SecurityException("Вы можете удалять только свои лекции");
         }
 
-        try {
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
-                            .bucket(bucketName)
-                            .object(lecture.getFilePath())
-                            .build()
-            );
+        // Сам файл удаляется из MinIO фоновой очисткой после коммита
+        transactionTemplate.executeWithoutResult(status -> {
             lectureRepository.deleteById(id);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при удалении лекции", e);
-        }
+            objectCleanup.scheduleDeletion(lecture.getFilePath());
+        });
+    }
+
+    private Long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private Limit limit(Integer limit) {
+        return Limit.of(limit != null && limit > 0 ? Math.min(limit, maxLimit) : defaultLimit);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.testgen.lecture.service;
+
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Доступ к низкоуровневым операциям S3 multipart upload, которые MinioAsyncClient
+ * не открывает наружу. Нужен, чтобы загружать части параллельно и с заданным размером.
+ */
+public class MinioMultipartClient extends MinioAsyncClient {
+
+    public MinioMultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public CompletableFuture<String> createUpload(String bucket, String object, Multimap<String, String> headers)
+            throws MinioException, GeneralSecurityException, IOException {
+        return createMultipartUploadAsync(bucket, null, object, headers, null)
+                .thenApply(response -> response.result().uploadId());
+    }
+
+    public CompletableFuture<Part> uploadPart(String bucket, String object, String uploadId,
+                                              int partNumber, byte[] data, int length)
+            throws MinioException, GeneralSecurityException, IOException {
+        return uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, null, null)
+                .thenApply(response -> new Part(partNumber, response.etag()));
+    }
+
+    public CompletableFuture<ObjectWriteResponse> completeUpload(String bucket, String object,
+                                                                 String uploadId, Part[] parts)
+            throws MinioException, GeneralSecurityException, IOException {
+        return completeMultipartUploadAsync(bucket, null, object, uploadId, parts, null, null);
+    }
+
+    public CompletableFuture<?> abortUpload(String bucket, String object, String uploadId)
+            throws MinioException, GeneralSecurityException, IOException {
+        return abortMultipartUploadAsync(bucket, null, object, uploadId, null, null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.testgen.lecture.service;
+
+import com.testgen.lecture.model.PendingObject;
+import com.testgen.lecture.repository.PendingObjectRepository;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Компенсирующее удаление объектов MinIO без лекции. Перед загрузкой объект
+ * записывается в pending_objects, в транзакции с сохранением лекции запись снимается.
+ * Если лекция так и не сохранилась или была удалена, объект удаляется пачкой.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ObjectCleanup {
+
+    private final PendingObjectRepository pendingObjectRepository;
+    private final MinioClient minioClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${minio.bucket}")
+    private String bucketName;
+
+    // Сколько ждать завершения загрузки, прежде чем считать объект брошенным
+    @Value("${storage.cleanup.pending-timeout-ms:3600000}")
+    private long pendingTimeoutMs;
+
+    @Value("${storage.cleanup.retry-delay-ms:600000}")
+    private long retryDelayMs;
+
+    @Value("${storage.cleanup.batch-size:500}")
+    private int batchSize;
+
+    public void registerUpload(String objectName) {
+        pendingObjectRepository.save(pendingObject(objectName, Instant.now().plusMillis(pendingTimeoutMs)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void confirmUpload(String objectName) {
+        pendingObjectRepository.deleteById(objectName);
+    }
+
+    // Объект удаляется после коммита удаления лекции
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void scheduleDeletion(String objectName) {
+        pendingObjectRepository.save(pendingObject(objectName, Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${storage.cleanup.interval-ms:60000}")
+    public void sweep() {
+        try {
+            Integer removed;
+            do {
+                removed = transactionTemplate.execute(status -> sweepBatch());
+            } while (removed != null && removed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Orphan object cleanup failed, will retry", e);
+        }
+    }
+
+    private int sweepBatch() {
+        List<PendingObject> expired = pendingObjectRepository.lockExpired(Instant.now(), batchSize);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(bucketName)
+                        .objects(expired.stream().map(o -> new DeleteObject(o.getObjectName())).toList())
+                        .build());
+
+        // Результаты ленивые: запрос к MinIO выполняется при обходе
+        Set<String> failed = new HashSet<>();
+        for (Result<DeleteError> result : results) {
+            try {
+                DeleteError error = result.get();
+                failed.add(error.objectName());
+                log.warn("Failed to remove orphan object {}: {}", error.objectName(), error.message());
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to remove orphan objects", e);
+            }
+        }
+
+        Instant retryAt = Instant.now().plus(Duration.ofMillis(retryDelayMs));
+        List<PendingObject> removed = new ArrayList<>();
+        for (PendingObject object : expired) {
+            if (failed.contains(object.getObjectName())) {
+                object.setDeleteAfter(retryAt);
+            } else {
+                removed.add(object);
+            }
+        }
+        pendingObjectRepository.deleteAllInBatch(removed);
+        return expired.size();
+    }
+
+    private static PendingObject pendingObject(String objectName, Instant deleteAfter) {
+        PendingObject object = new PendingObject();
+        object.setObjectName(objectName);
+        object.setDeleteAfter(deleteAfter);
+        return object;
+    }
+}
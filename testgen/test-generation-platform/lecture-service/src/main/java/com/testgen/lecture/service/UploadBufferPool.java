@@ -0,0 +1,72 @@
+package com.testgen.lecture.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Общий на сервис пул буферов для частей загрузки. Буферы создаются по мере надобности
+ * и переиспользуются, так что память под загрузки не превышает max-buffers * part-size.
+ */
+@Component
+public class UploadBufferPool {
+
+    // Минимальный размер части в S3, кроме последней
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final int bufferSize;
+    private final Semaphore permits;
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+    private final Counter rejected;
+
+    public UploadBufferPool(@Value("${minio.upload.part-size-bytes:16777216}") int partSize,
+                            @Value("${minio.upload.max-buffers:16}") int maxBuffers,
+                            MeterRegistry meterRegistry) {
+        this.bufferSize = Math.max(partSize, MIN_PART_SIZE);
+        this.permits = new Semaphore(maxBuffers);
+        this.rejected = meterRegistry.counter("minio.upload.rejected");
+        Gauge.builder("minio.upload.buffers.in-use", permits, p -> maxBuffers - p.availablePermits())
+                .register(meterRegistry);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Первый буфер загрузки.
+     *
+     * @throws RejectedExecutionException если свободных буферов нет
+     */
+    public byte[] acquire() {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("No upload buffers available");
+        }
+        return take();
+    }
+
+    /**
+     * Дополнительный буфер для параллельной отправки частей; null, если свободных нет.
+     */
+    public byte[] tryAcquire() {
+        return permits.tryAcquire() ? take() : null;
+    }
+
+    public void release(byte[] buffer) {
+        free.offer(buffer);
+        permits.release();
+    }
+
+    private byte[] take() {
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+}
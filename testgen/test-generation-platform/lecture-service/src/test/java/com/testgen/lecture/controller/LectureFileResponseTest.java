@@ -0,0 +1,106 @@
+package com.testgen.lecture.controller;
+
+import com.testgen.lecture.model.LectureFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LectureFileResponseTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final LectureFile FILE = new LectureFile(
+            "lectures/a.pdf", "a.pdf", CONTENT.length, "abc123", Instant.parse("2026-01-01T00:00:00Z"), "application/pdf");
+
+    @Test
+    void servesWholeFileWithoutRange() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = respond(null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc123\"");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_RANGE)).isFalse();
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void servesSingleRange() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = respond("bytes=2-5", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(4);
+        assertThat(body(response)).isEqualTo("2345");
+    }
+
+    @Test
+    void servesSuffixRange() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = respond("bytes=-3", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(body(response)).isEqualTo("789");
+    }
+
+    @Test
+    void clampsRangeEndToFileSize() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = respond("bytes=8-100", null);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+        assertThat(body(response)).isEqualTo("89");
+    }
+
+    @Test
+    void honoursRangeWhenIfRangeMatches() throws IOException {
+        assertThat(respond("bytes=0-1", "\"abc123\"").getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(respond("bytes=0-1", "abc123").getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void servesWholeFileWhenIfRangeIsStale() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = respond("bytes=0-1", "\"old\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() {
+        ResponseEntity<StreamingResponseBody> response = respond("bytes=10-20", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void servesWholeFileForMultipleOrMalformedRanges() throws IOException {
+        assertThat(respond("bytes=0-1,4-5", null).getStatusCode()).isEqualTo(HttpStatus.OK);
+        ResponseEntity<StreamingResponseBody> malformed = respond("items=0-1", null);
+        assertThat(malformed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(malformed)).isEqualTo("0123456789");
+    }
+
+    private static ResponseEntity<StreamingResponseBody> respond(String range, String ifRange) {
+        // Как MinIO: отдаёт ровно запрошенный отрезок
+        return LectureFileResponse.of(FILE, range, ifRange, CacheControl.noCache(),
+                (offset, length) -> new ByteArrayInputStream(CONTENT, (int) offset, (int) length));
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
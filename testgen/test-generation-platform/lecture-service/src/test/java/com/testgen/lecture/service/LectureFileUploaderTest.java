@@ -0,0 +1,114 @@
+package com.testgen.lecture.service;
+
+import com.testgen.lecture.model.UploadedFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.messages.Part;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LectureFileUploaderTest {
+
+    private static final String BUCKET = "lectures";
+    private static final String OBJECT = "lecture.pdf";
+    private static final String UPLOAD_ID = "upload-1";
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private final MinioMultipartClient client = mock(MinioMultipartClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UploadBufferPool bufferPool;
+    private LectureFileUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bufferPool = new UploadBufferPool(PART_SIZE, 16, meterRegistry);
+        uploader = new LectureFileUploader(client, bufferPool);
+        ReflectionTestUtils.setField(uploader, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(uploader, "maxConcurrentParts", 4);
+        ReflectionTestUtils.setField(uploader, "maxSize", 100L * PART_SIZE);
+
+        when(client.createUpload(eq(BUCKET), eq(OBJECT), any()))
+                .thenReturn(CompletableFuture.completedFuture(UPLOAD_ID));
+        when(client.uploadPart(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), anyInt(), any(), anyInt()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        new Part(invocation.getArgument(3), "etag-" + invocation.getArgument(3))));
+        when(client.completeUpload(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void completesMultipartUploadAndReleasesBuffers() throws Exception {
+        UploadedFile uploaded = uploader.upload(OBJECT, "application/pdf", input(2 * PART_SIZE + 100));
+
+        assertThat(uploaded.size()).isEqualTo(2L * PART_SIZE + 100);
+        verify(client).completeUpload(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), argThat(parts -> parts.length == 3));
+        verify(client, never()).abortUpload(any(), any(), any());
+        assertThat(buffersInUse()).isZero();
+    }
+
+    @Test
+    void abortsUploadWhenPartFails() throws Exception {
+        when(client.uploadPart(eq(BUCKET), eq(OBJECT), eq(UPLOAD_ID), eq(2), any(), anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+
+        assertThatThrownBy(() -> uploader.upload(OBJECT, "application/pdf", input(3 * PART_SIZE)))
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("connection reset");
+
+        verify(client).abortUpload(BUCKET, OBJECT, UPLOAD_ID);
+        verify(client, never()).completeUpload(any(), any(), any(), any());
+        assertThat(buffersInUse()).isZero();
+    }
+
+    @Test
+    void abortsUploadOverSizeLimit() throws Exception {
+        ReflectionTestUtils.setField(uploader, "maxSize", (long) PART_SIZE + 1);
+
+        assertThatThrownBy(() -> uploader.upload(OBJECT, "application/pdf", input(3 * PART_SIZE)))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+
+        verify(client).abortUpload(BUCKET, OBJECT, UPLOAD_ID);
+        assertThat(buffersInUse()).isZero();
+    }
+
+    @Test
+    void rejectsUploadWhenPoolIsExhausted() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UploadBufferPool exhausted = new UploadBufferPool(PART_SIZE, 1, registry);
+        exhausted.acquire();
+        LectureFileUploader busy = new LectureFileUploader(client, exhausted);
+
+        assertThatThrownBy(() -> busy.upload(OBJECT, "application/pdf", input(100)))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("minio.upload.rejected").counter().count()).isEqualTo(1);
+    }
+
+    private double buffersInUse() {
+        return meterRegistry.get("minio.upload.buffers.in-use").gauge().value();
+    }
+
+    private static ByteArrayInputStream input(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return new ByteArrayInputStream(data);
+    }
+}
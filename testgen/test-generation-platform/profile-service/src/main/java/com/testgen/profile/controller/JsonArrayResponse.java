@@ -0,0 +1,54 @@
+package com.testgen.profile.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Отдаёт JSON-массив потоково: элементы пишутся в ответ по мере чтения из базы,
+ * список целиком в памяти не собирается.
+ * <p>
+ * Копия есть в каждом сервисе со списками: сервисы собираются по отдельности, общего модуля нет.
+ */
+@Slf4j
+final class JsonArrayResponse {
+
+    private JsonArrayResponse() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Consumer<Consumer<Object>> source) {
+        StreamingResponseBody body = out -> {
+            // Без автозакрытия: при ошибке массив не должен дописываться до валидного JSON
+            try (JsonGenerator generator = objectMapper.createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                source.accept(item -> {
+                    try {
+                        generator.writeObject(item);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (IOException | UncheckedIOException e) {
+                // Обычно клиент закрыл соединение
+                log.warn("JSON array stream aborted: {}", e.toString());
+                throw e;
+            } catch (RuntimeException e) {
+                // Статус 200 уже отправлен; исключение доходит до Tomcat, и он обрывает соединение
+                log.error("JSON array stream aborted", e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
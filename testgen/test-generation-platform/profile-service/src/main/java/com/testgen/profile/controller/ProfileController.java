@@ -2,11 +2,11 @@ package com.testgen.profile.controller;
 
 import com.testgen.profile.model.Profile;
 import com.testgen.profile.service.ProfileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/profiles")
@@ -14,6 +14,7 @@ import java.util.List;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Profile> createProfile(@RequestBody Profile profile) {
@@ -30,9 +31,13 @@ public class ProfileController {
         return ResponseEntity.ok(profileService.getProfileByUserId(userId));
     }
 
+    // Следующая страница запрашивается с after = id последнего элемента
     @GetMapping
-    public ResponseEntity<List<Profile>> getAllProfiles() {
-        return ResponseEntity.ok(profileService.getAllProfiles());
+    public ResponseEntity<StreamingResponseBody> getAllProfiles(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return JsonArrayResponse.of(objectMapper,
+                sink -> profileService.streamProfiles(after, limit, sink));
     }
 
     @PutMapping("/user/{userId}")
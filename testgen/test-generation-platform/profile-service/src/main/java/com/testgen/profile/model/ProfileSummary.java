@@ -0,0 +1,12 @@
+package com.testgen.profile.model;
+
+/**
+ * Проекция профиля для списков.
+ */
+public interface ProfileSummary {
+    Long getId();
+    Long getUserId();
+    String getFirstName();
+    String getLastName();
+    String getMiddleName();
+}
@@ -1,11 +1,16 @@
 package com.testgen.profile.service;
 
 import com.testgen.profile.model.Profile;
+import com.testgen.profile.model.ProfileSummary;
 import com.testgen.profile.repository.ProfileRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -13,6 +18,12 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
 
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
+
     public Profile createProfile(Profile profile) {
         return profileRepository.save(profile);
     }
@@ -27,8 +38,13 @@ public class ProfileService {
                 .orElseThrow(() -> new RuntimeException("Profile not found"));
     }
 
-    public List<Profile> getAllProfiles() {
-        return profileRepository.findAll();
+    // Keyset-пагинация по id: after — id последнего полученного профиля
+    @Transactional(readOnly = true)
+    public void streamProfiles(Long after, Integer limit, Consumer<? super ProfileSummary> sink) {
+        try (Stream<ProfileSummary> profiles = profileRepository.findByIdGreaterThanOrderByIdAsc(
+                cursor(after), limit(limit))) {
+            profiles.forEach(sink);
+        }
     }
 
     public Profile updateProfileByUserId(Long userId, Profile profile) {
@@ -51,4 +67,12 @@ public class ProfileService {
     public void deleteProfile(Long id) {
         profileRepository.deleteById(id);
     }
+
+    private Long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private Limit limit(Integer limit) {
+        return Limit.of(limit != null && limit > 0 ? Math.min(limit, maxLimit) : defaultLimit);
+    }
 } 
\ No newline at end of file
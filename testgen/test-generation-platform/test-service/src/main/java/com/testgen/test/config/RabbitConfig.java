@@ -1,30 +1,107 @@
 package com.testgen.test.config;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class RabbitConfig {
 
     public static final String TEST_QUEUE = "test.queue";
     public static final String TEST_EXCHANGE = "test-generation";
+    public static final String DEAD_LETTER_EXCHANGE = "test-generation.dlx";
+    public static final String TEST_DEAD_LETTER_QUEUE = "test.queue.dlq";
+    public static final String TEST_UPDATED_EXCHANGE = "test-updated";
+
+    @Value("${test.consumer.batch-size:50}")
+    private int batchSize;
+
+    @Value("${test.consumer.batch-timeout-ms:200}")
+    private long batchTimeoutMs;
+
+    @Value("${test.consumer.concurrency:1}")
+    private int concurrency;
+
+    @Value("${test.consumer.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${test.consumer.prefetch:100}")
+    private int prefetch;
 
     @Bean
     public DirectExchange testGenerationExchange() {
         return new DirectExchange(TEST_EXCHANGE);
     }
 
+    // Аргументы должны совпадать с объявлением в lecture-processing-service
     @Bean
     public Queue testQueue() {
-        return new Queue(TEST_QUEUE, true);
+        return QueueBuilder.durable(TEST_QUEUE)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE)
+                .deadLetterRoutingKey(TEST_DEAD_LETTER_QUEUE)
+                .build();
     }
 
     @Bean
     public Binding testQueueBinding(Queue testQueue, DirectExchange testGenerationExchange) {
         return BindingBuilder.bind(testQueue).to(testGenerationExchange).with(TEST_QUEUE);
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public DirectExchange deadLetterExchange() {
+        return new DirectExchange(DEAD_LETTER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue testDeadLetterQueue() {
+        return new Queue(TEST_DEAD_LETTER_QUEUE, true);
+    }
+
+    @Bean
+    public Binding testDeadLetterBinding(Queue testDeadLetterQueue, DirectExchange deadLetterExchange) {
+        return BindingBuilder.bind(testDeadLetterQueue).to(deadLetterExchange).with(TEST_DEAD_LETTER_QUEUE);
+    }
+
+    // Оповещение об изменении или удалении теста (сбрасывает кэши ключей ответов)
+    @Bean
+    public FanoutExchange testUpdatedExchange() {
+        return new FanoutExchange(TEST_UPDATED_EXCHANGE);
+    }
+
+    /**
+     * Пакетный приём: слушатель получает до batch-size сообщений
+     * (или сколько пришло за batch-timeout-ms) и подтверждает их сам.
+     * Фабрика собирается вручную, поэтому виртуальные потоки подключаем сами.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory testBatchContainerFactory(ConnectionFactory connectionFactory,
+                                                                          Environment environment) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchTimeoutMs);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setDefaultRequeueRejected(false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("test-batch-"));
+        }
+        return factory;
+    }
+}
@@ -1,10 +1,13 @@
 package com.testgen.test.controller;
 
-import com.testgen.test.model.Test;
+import com.testgen.test.model.SerializedTest;
 import com.testgen.test.service.TestService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/tests")
@@ -14,13 +17,13 @@ public class TestController {
     private final TestService testService;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Test> getTest(@PathVariable Long id) {
-        return ResponseEntity.ok(testService.getTest(id));
+    public ResponseEntity<byte[]> getTest(@PathVariable Long id, WebRequest request) {
+        return toResponse(testService.getTest(id), request);
     }
 
     @GetMapping("/lecture/{lectureId}")
-    public ResponseEntity<Test> getTestByLectureId(@PathVariable Long lectureId) {
-        return ResponseEntity.ok(testService.getTestByLectureId(lectureId));
+    public ResponseEntity<byte[]> getTestByLectureId(@PathVariable Long lectureId, WebRequest request) {
+        return toResponse(testService.getTestByLectureId(lectureId), request);
     }
 
     @DeleteMapping("/{id}")
@@ -28,4 +31,16 @@ public class TestController {
         testService.deleteTest(id);
         return ResponseEntity.ok().build();
     }
+
+    // При совпадении If-None-Match отвечает 304 без тела
+    private ResponseEntity<byte[]> toResponse(SerializedTest test, WebRequest request) {
+        if (request.checkNotModified(test.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(test.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(test.body());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.testgen.test.model;
+
+/**
+ * Тест, уже сериализованный в JSON, вместе с ETag для условных запросов.
+ */
+public record SerializedTest(
+    Long id,
+    Long lectureId,
+    long generation,
+    byte[] body,
+    String etag
+) {}
@@ -9,7 +9,7 @@ import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import java.util.List;
 
 @Entity
-@Table(name = "tests")
+@Table(name = "tests", uniqueConstraints = @UniqueConstraint(name = "ux_tests_lecture_id", columnNames = "lecture_id"))
 @Data
 @NoArgsConstructor
 public class Test {
@@ -20,6 +20,10 @@ public class Test {
     @Column(nullable = false)
     private Long lectureId;
 
+    // Версия генерации от lecture-processing-service, перезапись только более новой
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long generation;
+
     @Type(JsonBinaryType.class)
     @Column(columnDefinition = "jsonb")
     private List<Question> questions;
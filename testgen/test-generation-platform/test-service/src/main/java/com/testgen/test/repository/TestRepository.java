@@ -4,6 +4,6 @@ import com.testgen.test.model.Test;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
-public interface TestRepository extends JpaRepository<Test, Long> {
+public interface TestRepository extends JpaRepository<Test, Long>, TestRepositoryCustom {
     Optional<Test> findByLectureId(Long lectureId);
 } 
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.testgen.test.repository;
+
+import com.testgen.test.model.Test;
+
+import java.util.List;
+
+public interface TestRepositoryCustom {
+
+    /**
+     * Сохраняет тесты одним JDBC-батчем в одной транзакции.
+     * Тест лекции перезаписывается только более новой генерацией,
+     * повторная доставка того же сообщения ничего не меняет.
+     */
+    void upsertAll(List<Test> tests);
+}
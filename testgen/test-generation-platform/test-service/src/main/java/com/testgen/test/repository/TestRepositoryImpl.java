@@ -0,0 +1,52 @@
+package com.testgen.test.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testgen.test.model.Test;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TestRepositoryImpl implements TestRepositoryCustom {
+
+    // IDENTITY-ключи не дают Hibernate батчить вставки, поэтому пишем через JDBC
+    private static final String UPSERT_SQL =
+            "INSERT INTO tests (lecture_id, questions, generation) VALUES (?, ?::jsonb, ?) " +
+            "ON CONFLICT (lecture_id) DO UPDATE " +
+            "SET questions = EXCLUDED.questions, generation = EXCLUDED.generation " +
+            "WHERE tests.generation < EXCLUDED.generation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional
+    public void upsertAll(List<Test> tests) {
+        // Одна лекция дважды в одном INSERT ... ON CONFLICT недопустима, оставляем новейшую
+        Map<Long, Test> latest = new LinkedHashMap<>();
+        for (Test test : tests) {
+            latest.merge(test.getLectureId(), test,
+                    (current, candidate) -> candidate.getGeneration() > current.getGeneration() ? candidate : current);
+        }
+
+        List<Object[]> rows = new ArrayList<>(latest.size());
+        for (Test test : latest.values()) {
+            try {
+                rows.add(new Object[] {
+                        test.getLectureId(),
+                        objectMapper.writeValueAsString(test.getQuestions()),
+                        test.getGeneration()
+                });
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Failed to serialize questions of lecture " + test.getLectureId(), e);
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
@@ -0,0 +1,115 @@
+package com.testgen.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testgen.test.model.SerializedTest;
+import com.testgen.test.model.Test;
+import com.testgen.test.repository.TestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+
+/**
+ * Read-through кэш тестов в памяти: студенты получают готовые байты JSON,
+ * а Postgres читается один раз на тест за время жизни записи.
+ * Кэш локален для экземпляра, поэтому TTL ограничивает устаревание между репликами.
+ */
+@Component
+public class TestCache {
+
+    private final TestRepository testRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, SerializedTest> testsById;
+    // lectureId -> id теста; перезаписывается при каждом чтении, поэтому живёт не меньше записи теста
+    private final Cache<Long, Long> testIdsByLecture;
+    // lectureId -> последнее поколение, записанное потребителем этого экземпляра
+    private final Cache<Long, Long> writtenGenerations;
+
+    public TestCache(TestRepository testRepository,
+                     ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry,
+                     @Value("${test.cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${test.cache.ttl:PT10M}") Duration ttl) {
+        this.testRepository = testRepository;
+        this.objectMapper = objectMapper;
+        this.testsById = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Long, SerializedTest>weigher((id, test) -> test.body().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Без ограничения размера: вытеснение из индекса раньше теста сделало бы его невидимым для evictLecture
+        this.testIdsByLecture = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.writtenGenerations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, testsById, "tests");
+        CaffeineCacheMetrics.monitor(meterRegistry, testIdsByLecture, "tests-by-lecture");
+    }
+
+    public SerializedTest getById(Long id) {
+        return remember(testsById.get(id, key -> serialize(testRepository.findById(key)
+                .orElseThrow(() -> new RuntimeException("Test not found")))));
+    }
+
+    public SerializedTest getByLectureId(Long lectureId) {
+        Long id = testIdsByLecture.getIfPresent(lectureId);
+        if (id != null) {
+            SerializedTest cached = testsById.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Test test = testRepository.findByLectureId(lectureId)
+                .orElseThrow(() -> new RuntimeException("Test not found"));
+        return remember(testsById.get(test.getId(), key -> serialize(test)));
+    }
+
+    /**
+     * Вызывается после фиксации upsert. Поколение запоминается до вытеснения:
+     * загрузка, прочитавшая строку до upsert и положившая её в кэш позже,
+     * увидит его в {@link #remember} и уберёт устаревшую запись.
+     */
+    public void evictLecture(Long lectureId, long generation) {
+        writtenGenerations.asMap().merge(lectureId, generation, Math::max);
+        Long id = testIdsByLecture.getIfPresent(lectureId);
+        if (id != null) {
+            testsById.invalidate(id);
+        }
+    }
+
+    public void evict(Long id) {
+        SerializedTest cached = testsById.getIfPresent(id);
+        testsById.invalidate(id);
+        if (cached != null) {
+            testIdsByLecture.invalidate(cached.lectureId());
+        }
+    }
+
+    private SerializedTest remember(SerializedTest test) {
+        testIdsByLecture.put(test.lectureId(), test.id());
+        Long written = writtenGenerations.getIfPresent(test.lectureId());
+        if (written != null && test.generation() < written) {
+            testsById.asMap().remove(test.id(), test);
+        }
+        return test;
+    }
+
+    private SerializedTest serialize(Test test) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(test);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new SerializedTest(test.getId(), test.getLectureId(), test.getGeneration(), body, etag);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize test " + test.getId(), e);
+        }
+    }
+}
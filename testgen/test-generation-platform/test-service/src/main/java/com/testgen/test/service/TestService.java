@@ -1,46 +1,174 @@
 package com.testgen.test.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rabbitmq.client.Channel;
+import com.testgen.test.config.RabbitConfig;
+import com.testgen.test.model.SerializedTest;
 import com.testgen.test.model.Test;
 import com.testgen.test.repository.TestRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TestService {
 
-    private static final String TEST_QUEUE = "test.queue";
-
     @Value("${rabbitmq.queue}")
     private String exchange;
 
     private final TestRepository testRepository;
+    private final TestCache testCache;
+    private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
-    public Test getTest(Long id) {
-        return testRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Test not found"));
+    public SerializedTest getTest(Long id) {
+        return testCache.getById(id);
     }
 
-    public Test getTestByLectureId(Long lectureId) {
-        return testRepository.findByLectureId(lectureId)
-                .orElseThrow(() -> new RuntimeException("Test not found"));
+    public SerializedTest getTestByLectureId(Long lectureId) {
+        return testCache.getByLectureId(lectureId);
     }
 
     public void deleteTest(Long id) {
         testRepository.deleteById(id);
+        testCache.evict(id);
+        publishTestUpdated(id, null);
+    }
+
+    /**
+     * Принимает пачку сообщений и сохраняет её одной транзакцией (upsert по lectureId).
+     * Если пачка не записалась, сообщения пишутся по одному, чтобы
+     * в DLQ ушли только проблемные, а остальные были подтверждены.
+     * Метрики: messaging.lag, messaging.consume{outcome} и размер пачки.
+     */
+    @RabbitListener(queues = RabbitConfig.TEST_QUEUE, containerFactory = "testBatchContainerFactory")
+    public void handleTestCreation(List<Message> messages, Channel channel) throws IOException {
+        recordLag(messages);
+        DistributionSummary.builder("messaging.consume.batch.size")
+                .tag("queue", RabbitConfig.TEST_QUEUE)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(messages.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            outcome = saveBatch(messages, channel);
+        } finally {
+            sample.stop(Timer.builder("messaging.consume")
+                    .tag("queue", RabbitConfig.TEST_QUEUE)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private String saveBatch(List<Message> messages, Channel channel) throws IOException {
+        List<Test> tests = new ArrayList<>(messages.size());
+        List<Long> deliveryTags = new ArrayList<>(messages.size());
+
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                tests.add(objectMapper.readValue(message.getBody(), Test.class));
+                deliveryTags.add(deliveryTag);
+            } catch (Exception e) {
+                log.warn("Rejecting malformed test message {}", deliveryTag, e);
+                channel.basicNack(deliveryTag, false, false);
+            }
+        }
+        if (tests.isEmpty()) {
+            return "rejected";
+        }
+
+        try {
+            testRepository.upsertAll(tests);
+            tests.forEach(test -> {
+                testCache.evictLecture(test.getLectureId(), test.getGeneration());
+                publishTestUpdated(null, test.getLectureId());
+            });
+            for (Long deliveryTag : deliveryTags) {
+                channel.basicAck(deliveryTag, false);
+            }
+            return "success";
+        } catch (TransientDataAccessException e) {
+            // БД недоступна — сообщения не виноваты, возвращаем их в очередь
+            log.warn("Batch of {} tests failed, requeueing", tests.size(), e);
+            for (Long deliveryTag : deliveryTags) {
+                channel.basicNack(deliveryTag, false, true);
+            }
+            return "requeued";
+        } catch (Exception e) {
+            log.warn("Batch of {} tests failed, retrying one by one", tests.size(), e);
+        }
+
+        for (int i = 0; i < tests.size(); i++) {
+            long deliveryTag = deliveryTags.get(i);
+            try {
+                testRepository.upsertAll(List.of(tests.get(i)));
+                testCache.evictLecture(tests.get(i).getLectureId(), tests.get(i).getGeneration());
+                publishTestUpdated(null, tests.get(i).getLectureId());
+                channel.basicAck(deliveryTag, false);
+            } catch (Exception e) {
+                log.error("Failed to save test for lecture {}", tests.get(i).getLectureId(), e);
+                channel.basicNack(deliveryTag, false, false);
+            }
+        }
+        return "retried";
+    }
+
+    // Время от публикации (проставляет lecture-processing-service) до получения пачки
+    private void recordLag(List<Message> messages) {
+        Timer lag = Timer.builder("messaging.lag")
+                .tag("queue", RabbitConfig.TEST_QUEUE)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        long now = System.currentTimeMillis();
+        for (Message message : messages) {
+            Date timestamp = message.getMessageProperties().getTimestamp();
+            if (timestamp != null) {
+                lag.record(Math.max(0, now - timestamp.getTime()), TimeUnit.MILLISECONDS);
+            }
+        }
     }
 
-    @RabbitListener(queues = TEST_QUEUE)
-    public void handleTestCreation(String testJson) {
+    private void publishTestUpdated(Long testId, Long lectureId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
-            Test test = objectMapper.readValue(testJson, Test.class);
-            testRepository.save(test);
+            ObjectNode event = objectMapper.createObjectNode();
+            event.put("testId", testId);
+            event.put("lectureId", lectureId);
+            rabbitTemplate.convertAndSend(RabbitConfig.TEST_UPDATED_EXCHANGE, "",
+                    objectMapper.writeValueAsString(event));
+            outcome = "success";
         } catch (Exception e) {
-            throw new RuntimeException("Failed to process test creation", e);
+            // Не критично: у потребителей кэш ограничен по TTL
+            log.warn("Failed to publish test update for test {} / lecture {}", testId, lectureId, e);
+        } finally {
+            sample.stop(Timer.builder("messaging.publish")
+                    .tag("exchange", RabbitConfig.TEST_UPDATED_EXCHANGE)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.testgen.test.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TestRepositoryImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TestRepositoryImpl repository = new TestRepositoryImpl(jdbcTemplate, new ObjectMapper());
+
+    @Test
+    void overwritesOnlyWithNewerGeneration() {
+        repository.upsertAll(List.of(test(1L, 3)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), anyList());
+        assertThat(sql.getValue())
+                .contains("ON CONFLICT (lecture_id) DO UPDATE")
+                .endsWith("WHERE tests.generation < EXCLUDED.generation");
+    }
+
+    @Test
+    void keepsNewestGenerationOfLectureWithinBatch() {
+        repository.upsertAll(List.of(test(1L, 2), test(2L, 1), test(1L, 5), test(1L, 4)));
+
+        List<Object[]> rows = capturedRows();
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)[0]).isEqualTo(1L);
+        assertThat(rows.get(0)[2]).isEqualTo(5L);
+        assertThat(rows.get(1)[0]).isEqualTo(2L);
+        assertThat(rows.get(1)[2]).isEqualTo(1L);
+    }
+
+    @Test
+    void writesQuestionsAsJson() {
+        com.testgen.test.model.Test test = test(7L, 1);
+        test.setQuestions(List.of(new com.testgen.test.model.Test.Question(1, "Вопрос", List.of("a", "b"), 0)));
+
+        repository.upsertAll(List.of(test));
+
+        assertThat((String) capturedRows().get(0)[1])
+                .isEqualTo("[{\"id\":1,\"text\":\"Вопрос\",\"options\":[\"a\",\"b\"],\"correctAnswer\":0}]");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> capturedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    private static com.testgen.test.model.Test test(Long lectureId, long generation) {
+        com.testgen.test.model.Test test = new com.testgen.test.model.Test();
+        test.setLectureId(lectureId);
+        test.setGeneration(generation);
+        test.setQuestions(List.of());
+        return test;
+    }
+}
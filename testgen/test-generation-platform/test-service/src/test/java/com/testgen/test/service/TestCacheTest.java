@@ -0,0 +1,87 @@
+package com.testgen.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testgen.test.model.SerializedTest;
+import com.testgen.test.repository.TestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestCacheTest {
+
+    private final TestRepository testRepository = mock(TestRepository.class);
+    private final TestCache cache = new TestCache(testRepository, new ObjectMapper(),
+            new SimpleMeterRegistry(), 1 << 20, Duration.ofMinutes(10));
+
+    @Test
+    void servesRepeatedReadsFromCache() {
+        when(testRepository.findByLectureId(1L)).thenReturn(Optional.of(test(10L, 1L, 1)));
+
+        cache.getByLectureId(1L);
+        SerializedTest second = cache.getByLectureId(1L);
+
+        assertThat(second.generation()).isEqualTo(1);
+        verify(testRepository, times(1)).findByLectureId(1L);
+    }
+
+    @Test
+    void evictLectureDropsCachedTest() {
+        when(testRepository.findByLectureId(1L))
+                .thenReturn(Optional.of(test(10L, 1L, 1)))
+                .thenReturn(Optional.of(test(10L, 1L, 2)));
+        cache.getByLectureId(1L);
+
+        cache.evictLecture(1L, 2);
+
+        assertThat(cache.getByLectureId(1L).generation()).isEqualTo(2);
+        verify(testRepository, times(2)).findByLectureId(1L);
+    }
+
+    @Test
+    void dropsLoadThatReadRowBeforeConcurrentUpsert() {
+        // Загрузка прочитала поколение 1, а upsert поколения 2 завершился до того, как она попала в кэш
+        when(testRepository.findByLectureId(1L))
+                .thenAnswer(invocation -> {
+                    cache.evictLecture(1L, 2);
+                    return Optional.of(test(10L, 1L, 1));
+                })
+                .thenReturn(Optional.of(test(10L, 1L, 2)));
+
+        SerializedTest stale = cache.getByLectureId(1L);
+        SerializedTest fresh = cache.getByLectureId(1L);
+
+        assertThat(stale.generation()).isEqualTo(1);
+        assertThat(fresh.generation()).isEqualTo(2);
+        assertThat(cache.getById(10L).generation()).isEqualTo(2);
+        verify(testRepository, times(2)).findByLectureId(1L);
+    }
+
+    @Test
+    void keepsLoadOfAlreadyWrittenGeneration() {
+        cache.evictLecture(1L, 2);
+        when(testRepository.findById(10L)).thenReturn(Optional.of(test(10L, 1L, 2)));
+
+        cache.getById(10L);
+        cache.getById(10L);
+
+        verify(testRepository, times(1)).findById(10L);
+    }
+
+    private static com.testgen.test.model.Test test(Long id, Long lectureId, long generation) {
+        com.testgen.test.model.Test test = new com.testgen.test.model.Test();
+        test.setId(id);
+        test.setLectureId(lectureId);
+        test.setGeneration(generation);
+        test.setQuestions(List.of());
+        return test;
+    }
+}
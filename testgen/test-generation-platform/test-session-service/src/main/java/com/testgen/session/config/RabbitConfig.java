@@ -0,0 +1,31 @@
+package com.testgen.session.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    public static final String TEST_UPDATED_EXCHANGE = "test-updated";
+
+    @Bean
+    public FanoutExchange testUpdatedExchange() {
+        return new FanoutExchange(TEST_UPDATED_EXCHANGE);
+    }
+
+    // Своя временная очередь у каждого экземпляра: событие должно дойти до всех реплик
+    @Bean
+    public Queue testUpdatedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding testUpdatedBinding(Queue testUpdatedQueue, FanoutExchange testUpdatedExchange) {
+        return BindingBuilder.bind(testUpdatedQueue).to(testUpdatedExchange);
+    }
+}
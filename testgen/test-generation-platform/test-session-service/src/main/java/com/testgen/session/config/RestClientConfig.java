@@ -0,0 +1,30 @@
+package com.testgen.session.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestClientConfig {
+
+    @Value("${session.test-service.connect-timeout:PT2S}")
+    private Duration connectTimeout;
+
+    @Value("${session.test-service.read-timeout:PT5S}")
+    private Duration readTimeout;
+
+    // Обращения к другим сервисам по имени из Eureka (http://test-service/...)
+    @Bean
+    @LoadBalanced
+    public RestTemplate serviceRestTemplate(RestTemplateBuilder builder) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
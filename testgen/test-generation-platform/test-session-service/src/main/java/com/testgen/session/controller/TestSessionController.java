@@ -1,11 +1,15 @@
 package com.testgen.session.controller;
 
 import com.testgen.session.model.Answer;
+import com.testgen.session.model.TestAnalytics;
 import com.testgen.session.model.TestSession;
+import com.testgen.session.service.TestAnalyticsService;
 import com.testgen.session.service.TestSessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,6 +19,8 @@ import java.util.List;
 public class TestSessionController {
 
     private final TestSessionService sessionService;
+    private final TestAnalyticsService analyticsService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<TestSession> createSession(@RequestBody TestSession session) {
@@ -26,9 +32,14 @@ public class TestSessionController {
         return ResponseEntity.ok(sessionService.getSession(id));
     }
 
+    // Следующая страница запрашивается с after = id последнего элемента
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<List<TestSession>> getSessionsByStudentId(@PathVariable Long studentId) {
-        return ResponseEntity.ok(sessionService.getSessionsByStudentId(studentId));
+    public ResponseEntity<StreamingResponseBody> getSessionsByStudentId(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return JsonArrayResponse.of(objectMapper,
+                sink -> sessionService.streamSessionsByStudentId(studentId, after, limit, sink));
     }
 
     @GetMapping("/student_and_test/{studentId}/{testId}")
@@ -37,8 +48,17 @@ public class TestSessionController {
     }
 
     @GetMapping("/test/{testId}")
-    public ResponseEntity<List<TestSession>> getSessionsByTestId(@PathVariable Long testId) {
-        return ResponseEntity.ok(sessionService.getSessionsByTestId(testId));
+    public ResponseEntity<StreamingResponseBody> getSessionsByTestId(
+            @PathVariable Long testId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return JsonArrayResponse.of(objectMapper,
+                sink -> sessionService.streamSessionsByTestId(testId, after, limit, sink));
+    }
+
+    @GetMapping("/test/{testId}/analytics")
+    public ResponseEntity<TestAnalytics> getTestAnalytics(@PathVariable Long testId) {
+        return ResponseEntity.ok(analyticsService.getAnalytics(testId));
     }
 
     @GetMapping("/current/{studentId}/{testId}")
@@ -55,6 +75,13 @@ public class TestSessionController {
         return ResponseEntity.ok(sessionService.updateSession(id, session));
     }
 
+    // Автосохранение одного ответа; запись в базу выполняется пачками в фоне
+    @PatchMapping("/{id}/answers")
+    public ResponseEntity<Void> saveAnswer(@PathVariable Long id, @RequestBody Answer answer) {
+        sessionService.saveAnswer(id, answer);
+        return ResponseEntity.accepted().build();
+    }
+
     @PutMapping("finish/{id}")
     public ResponseEntity<TestSession> finishSessionEarly(@PathVariable Long id, @RequestBody List<Answer> answers) {
         System.out.println(answers);
@@ -0,0 +1,45 @@
+package com.testgen.session.model;
+
+import java.util.List;
+
+/**
+ * Ключ ответов теста: correctOptions[questionId] — индекс правильного варианта
+ * (questionId совпадает с позицией вопроса в тесте, -1 — ответ неизвестен).
+ * optionCount — наибольшее число вариантов среди вопросов теста.
+ */
+public record AnswerKey(
+    long testId,
+    long lectureId,
+    long generation,
+    int[] correctOptions,
+    int optionCount
+) {
+
+    /**
+     * Проставляет isCorrect каждому ответу и возвращает балл 0..100
+     * относительно числа вопросов теста, а не числа присланных ответов.
+     */
+    public int grade(List<Answer> answers) {
+        int questionCount = correctOptions.length;
+        if (questionCount == 0 || answers == null) {
+            return 0;
+        }
+        boolean[] counted = new boolean[questionCount];
+        int correct = 0;
+        for (Answer answer : answers) {
+            Long questionId = answer.getQuestionId();
+            Integer selected = answer.getSelectedOption();
+            boolean isCorrect = questionId != null
+                    && questionId >= 0 && questionId < questionCount
+                    && selected != null && selected >= 0
+                    && correctOptions[questionId.intValue()] == selected;
+            answer.setCorrect(isCorrect);
+            // Повторный ответ на тот же вопрос не увеличивает балл
+            if (isCorrect && !counted[questionId.intValue()]) {
+                counted[questionId.intValue()] = true;
+                correct++;
+            }
+        }
+        return correct * 100 / questionCount;
+    }
+}
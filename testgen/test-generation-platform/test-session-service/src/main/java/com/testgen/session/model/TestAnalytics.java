@@ -0,0 +1,24 @@
+package com.testgen.session.model;
+
+import java.util.List;
+
+/**
+ * Статистика теста для преподавателя.
+ * correctRate считается от числа попыток: неотвеченный вопрос засчитывается как неверный.
+ */
+public record TestAnalytics(
+    Long testId,
+    int attempts,
+    double averageScore,
+    int[] scoreHistogram,
+    List<QuestionStats> questions
+) {
+
+    public record QuestionStats(
+        int questionId,
+        int answered,
+        int correct,
+        double correctRate,
+        int[] optionCounts
+    ) {}
+}
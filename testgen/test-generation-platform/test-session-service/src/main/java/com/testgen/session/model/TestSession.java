@@ -9,7 +9,11 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 @Entity
-@Table(name = "test_sessions")
+@Table(name = "test_sessions", indexes = {
+    @Index(name = "ix_test_sessions_student_test", columnList = "student_id, test_id"),
+    @Index(name = "ix_test_sessions_student", columnList = "student_id, id"),
+    @Index(name = "ix_test_sessions_test_id", columnList = "test_id, id")
+})
 @Data
 @NoArgsConstructor
 public class TestSession {
@@ -0,0 +1,16 @@
+package com.testgen.session.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция сессии для списков: без тяжёлой колонки answers.
+ */
+public interface TestSessionSummary {
+    Long getId();
+    Long getTestId();
+    Long getStudentId();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+    Integer getScore();
+    boolean isFinished();
+}
@@ -0,0 +1,119 @@
+package com.testgen.session.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Накопительная статистика по тесту. Обновляется при завершении каждой сессии,
+ * поэтому чтение не зависит от числа сессий.
+ */
+@Entity
+@Table(name = "test_statistics")
+@Data
+@NoArgsConstructor
+public class TestStatistics {
+
+    public static final int SCORE_BUCKETS = 10;
+
+    @Id
+    private Long testId;
+
+    // Версия теста, к которой относятся счётчики; при перегенерации теста они обнуляются
+    @Column(nullable = false)
+    private long generation;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private long scoreSum;
+
+    // scoreHistogram[i] — число попыток с баллом в [10 * i, 10 * i + 9], последняя корзина включает 100
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "integer[]")
+    private int[] scoreHistogram;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "integer[]")
+    private int[] questionAnswered;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "integer[]")
+    private int[] questionCorrect;
+
+    @Column(nullable = false)
+    private int optionStride;
+
+    // optionCounts[questionId * optionStride + option] — сколько раз выбран вариант
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(columnDefinition = "integer[]")
+    private int[] optionCounts;
+
+    public void reset(AnswerKey key) {
+        int questionCount = key.correctOptions().length;
+        generation = key.generation();
+        attempts = 0;
+        scoreSum = 0;
+        optionStride = key.optionCount();
+        scoreHistogram = new int[SCORE_BUCKETS];
+        questionAnswered = new int[questionCount];
+        questionCorrect = new int[questionCount];
+        optionCounts = new int[questionCount * optionStride];
+    }
+
+    /**
+     * Учитывает одну завершённую попытку. Верность ответа определяется по ключу,
+     * а не по сохранённому isCorrect.
+     */
+    public void add(AnswerKey key, List<Answer> answers, Integer score) {
+        int points = score != null ? Math.max(score, 0) : 0;
+        attempts++;
+        scoreSum += points;
+        scoreHistogram[Math.min(points / 10, SCORE_BUCKETS - 1)]++;
+        if (answers == null) {
+            return;
+        }
+        int[] correctOptions = key.correctOptions();
+        for (Answer answer : answers) {
+            Long questionId = answer.getQuestionId();
+            Integer selected = answer.getSelectedOption();
+            if (questionId == null || questionId < 0 || questionId >= questionAnswered.length
+                    || selected == null || selected < 0) {
+                continue;
+            }
+            int question = questionId.intValue();
+            questionAnswered[question]++;
+            if (correctOptions[question] == selected) {
+                questionCorrect[question]++;
+            }
+            if (selected < optionStride) {
+                optionCounts[question * optionStride + selected]++;
+            }
+        }
+    }
+
+    public TestAnalytics toAnalytics() {
+        List<TestAnalytics.QuestionStats> questions = new ArrayList<>(questionAnswered.length);
+        for (int question = 0; question < questionAnswered.length; question++) {
+            questions.add(new TestAnalytics.QuestionStats(
+                    question,
+                    questionAnswered[question],
+                    questionCorrect[question],
+                    attempts > 0 ? (double) questionCorrect[question] / attempts : 0,
+                    Arrays.copyOfRange(optionCounts, question * optionStride, (question + 1) * optionStride)));
+        }
+        return new TestAnalytics(
+                testId,
+                attempts,
+                attempts > 0 ? (double) scoreSum / attempts : 0,
+                scoreHistogram.clone(),
+                questions);
+    }
+}
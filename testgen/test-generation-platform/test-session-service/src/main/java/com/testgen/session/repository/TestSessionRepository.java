@@ -1,11 +1,33 @@
 package com.testgen.session.repository;
 
 import com.testgen.session.model.TestSession;
+import com.testgen.session.model.TestSessionSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TestSessionRepository extends JpaRepository<TestSession, Long> {
-    List<TestSession> findByStudentId(Long studentId);
+public interface TestSessionRepository extends JpaRepository<TestSession, Long>, TestSessionRepositoryCustom {
     List<TestSession> findByStudentIdAndTestId(Long studentId, Long testId);
-    List<TestSession> findByTestId(Long testId);
-} 
\ No newline at end of file
+    Optional<TestSession> findByStudentIdAndTestIdAndFinishedFalse(Long studentId, Long testId);
+    Stream<TestSession> findByTestIdAndFinishedTrue(Long testId);
+    boolean existsByIdAndFinishedFalse(Long id);
+
+    // Завершение сессии: параллельные вызовы выстраиваются на строке, второй увидит finished
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TestSession s where s.id = :id")
+    Optional<TestSession> findByIdForUpdate(Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<TestSessionSummary> findByStudentIdAndIdGreaterThanOrderByIdAsc(Long studentId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<TestSessionSummary> findByTestIdAndIdGreaterThanOrderByIdAsc(Long testId, Long id, Limit limit);
+}
\ No newline at end of file
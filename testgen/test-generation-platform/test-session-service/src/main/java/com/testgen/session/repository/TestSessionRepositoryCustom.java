@@ -0,0 +1,15 @@
+package com.testgen.session.repository;
+
+import com.testgen.session.model.Answer;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface TestSessionRepositoryCustom {
+
+    /**
+     * Дописывает ответы в jsonb-массив answers незавершённых сессий одним JDBC-батчем:
+     * ответы на те же вопросы заменяются, остальные элементы массива не трогаются.
+     */
+    void mergeAnswers(Map<Long, Collection<Answer>> answersBySession);
+}
@@ -0,0 +1,44 @@
+package com.testgen.session.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testgen.session.model.Answer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TestSessionRepositoryImpl implements TestSessionRepositoryCustom {
+
+    // В базу уходит только дельта, слияние с массивом answers выполняет Postgres
+    private static final String MERGE_ANSWERS_SQL =
+            "UPDATE test_sessions SET answers = " +
+            "(SELECT coalesce(jsonb_agg(a), '[]'::jsonb) " +
+            "   FROM jsonb_array_elements(coalesce(answers, '[]'::jsonb)) a " +
+            "  WHERE NOT (?::jsonb @> jsonb_build_array(jsonb_build_object('questionId', a -> 'questionId')))) " +
+            "|| ?::jsonb " +
+            "WHERE id = ? AND finished = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional
+    public void mergeAnswers(Map<Long, Collection<Answer>> answersBySession) {
+        List<Object[]> rows = new ArrayList<>(answersBySession.size());
+        for (Map.Entry<Long, Collection<Answer>> entry : answersBySession.entrySet()) {
+            try {
+                String delta = objectMapper.writeValueAsString(entry.getValue());
+                rows.add(new Object[] { delta, delta, entry.getKey() });
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Failed to serialize answers of session " + entry.getKey(), e);
+            }
+        }
+        jdbcTemplate.batchUpdate(MERGE_ANSWERS_SQL, rows);
+    }
+}
@@ -0,0 +1,22 @@
+package com.testgen.session.repository;
+
+import com.testgen.session.model.TestStatistics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Optional;
+
+public interface TestStatisticsRepository extends JpaRepository<TestStatistics, Long> {
+
+    // Создание строки без гонки между параллельными завершениями; 1 — строка создана
+    @Modifying
+    @Query(value = "INSERT INTO test_statistics (test_id, generation, attempts, score_sum, option_stride) " +
+            "VALUES (:testId, :generation, 0, 0, 0) ON CONFLICT (test_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Long testId, long generation);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TestStatistics s where s.testId = :testId")
+    Optional<TestStatistics> findForUpdate(Long testId);
+}
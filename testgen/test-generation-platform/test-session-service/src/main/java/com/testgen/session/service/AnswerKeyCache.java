@@ -0,0 +1,85 @@
+package com.testgen.session.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testgen.session.model.AnswerKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Локальный кэш ключей ответов по testId. Ключ загружается из test-service
+ * один раз и сбрасывается по событию test-updated; TTL страхует от потерянных событий.
+ */
+@Slf4j
+@Component
+public class AnswerKeyCache {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, AnswerKey> keys;
+
+    @Value("${session.test-service.url:http://test-service}")
+    private String testServiceUrl;
+
+    public AnswerKeyCache(RestTemplate serviceRestTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${session.grading.cache.max-size:10000}") long maxSize,
+                          @Value("${session.grading.cache.ttl:PT1H}") Duration ttl) {
+        this.restTemplate = serviceRestTemplate;
+        this.objectMapper = objectMapper;
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AnswerKey get(Long testId) {
+        return keys.get(testId, this::load);
+    }
+
+    @RabbitListener(queues = "#{testUpdatedQueue.name}")
+    public void handleTestUpdated(String eventJson) {
+        try {
+            JsonNode event = objectMapper.readTree(eventJson);
+            JsonNode testId = event.path("testId");
+            JsonNode lectureId = event.path("lectureId");
+            if (testId.canConvertToLong()) {
+                keys.invalidate(testId.asLong());
+            }
+            if (lectureId.canConvertToLong()) {
+                long id = lectureId.asLong();
+                keys.asMap().values().removeIf(key -> key.lectureId() == id);
+            }
+        } catch (Exception e) {
+            // Сбрасываем всё: лучше лишний раз перечитать ключи, чем оценивать по устаревшим
+            log.warn("Malformed test update event, clearing answer keys", e);
+            keys.invalidateAll();
+        }
+    }
+
+    private AnswerKey load(Long testId) {
+        try {
+            String json = restTemplate.getForObject(testServiceUrl + "/api/tests/{id}", String.class, testId);
+            JsonNode test = objectMapper.readTree(json);
+            JsonNode questions = test.path("questions");
+            int[] correctOptions = new int[questions.size()];
+            int optionCount = 0;
+            for (int i = 0; i < correctOptions.length; i++) {
+                JsonNode correctAnswer = questions.get(i).path("correctAnswer");
+                correctOptions[i] = correctAnswer.isInt() ? correctAnswer.intValue() : -1;
+                optionCount = Math.max(optionCount, questions.get(i).path("options").size());
+            }
+            return new AnswerKey(testId, test.path("lectureId").asLong(), test.path("generation").asLong(),
+                    correctOptions, optionCount);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load answer key for test " + testId, e);
+        }
+    }
+}
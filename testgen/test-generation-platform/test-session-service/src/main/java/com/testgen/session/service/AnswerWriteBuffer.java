@@ -0,0 +1,176 @@
+package com.testgen.session.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.testgen.session.model.Answer;
+import com.testgen.session.model.TestSession;
+import com.testgen.session.repository.TestSessionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Буфер автосохранения ответов. Ответы копятся в памяти по сессиям
+ * (повторный ответ на вопрос заменяет предыдущий) и сбрасываются в базу
+ * одним батчем по таймеру и при остановке сервиса; при завершении сессии
+ * они входят в итоговую запись вместе с ответами клиента.
+ */
+@Slf4j
+@Component
+public class AnswerWriteBuffer {
+
+    private final TestSessionRepository sessionRepository;
+    // sessionId -> (questionId -> ответ); внутренние карты меняются только под compute/remove
+    private final ConcurrentHashMap<Long, Map<Long, Answer>> pending = new ConcurrentHashMap<>();
+    // Ответы, которые сейчас пишутся в базу: остаются видимыми, пока запись не зафиксирована
+    private final ConcurrentHashMap<Long, Map<Long, Answer>> flushing = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Сессии, про которые уже известно, что они существуют и не завершены
+    private final Cache<Long, Boolean> openSessions;
+
+    public AnswerWriteBuffer(TestSessionRepository sessionRepository,
+                             @Value("${session.autosave.open-sessions-ttl:PT3H}") Duration openSessionsTtl) {
+        this.sessionRepository = sessionRepository;
+        this.openSessions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(openSessionsTtl)
+                .build();
+    }
+
+    public void record(Long sessionId, Answer answer) {
+        if (answer.getQuestionId() == null) {
+            throw new IllegalArgumentException("questionId is required");
+        }
+        if (openSessions.get(sessionId, sessionRepository::existsByIdAndFinishedFalse) != Boolean.TRUE) {
+            openSessions.invalidate(sessionId);
+            throw new IllegalStateException("Session not found or already finished");
+        }
+        Answer copy = new Answer();
+        copy.setQuestionId(answer.getQuestionId());
+        copy.setSelectedOption(answer.getSelectedOption());
+        pending.compute(sessionId, (id, answers) -> {
+            Map<Long, Answer> merged = answers != null ? answers : new LinkedHashMap<>();
+            merged.put(copy.getQuestionId(), copy);
+            return merged;
+        });
+    }
+
+    /**
+     * Читает сессию через {@code loader} и накладывает ещё не сброшенные ответы.
+     * Снимок буфера берётся до чтения строки: ответ, который к этому моменту
+     * ушёл из буфера, уже зафиксирован в базе и будет в прочитанной строке.
+     */
+    public Optional<TestSession> load(Long sessionId, Supplier<Optional<TestSession>> loader) {
+        Map<Long, Answer> unsaved = snapshot(sessionId);
+        return loader.get().map(session -> apply(session, unsaved));
+    }
+
+    /**
+     * Накладывает ещё не сброшенные ответы на прочитанную из базы сессию.
+     * Только для отображения: ответ, записанный между чтением и снимком, может не попасть.
+     */
+    public TestSession overlay(TestSession session) {
+        return apply(session, snapshot(session.getId()));
+    }
+
+    public void forget(Long sessionId) {
+        pending.remove(sessionId);
+        flushing.remove(sessionId);
+        openSessions.invalidate(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${session.autosave.flush-interval-ms:2000}")
+    public void flushAll() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<Long, Map<Long, Answer>> batch = new HashMap<>();
+            for (Long sessionId : pending.keySet()) {
+                // Перенос в flushing под блокировкой ключа pending: snapshot видит ответы в одной из карт
+                pending.computeIfPresent(sessionId, (id, answers) -> {
+                    flushing.put(id, answers);
+                    batch.put(id, answers);
+                    return null;
+                });
+            }
+            write(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAll();
+    }
+
+    static List<Answer> merge(List<Answer> stored, Collection<Answer> updates) {
+        Map<Long, Answer> byQuestion = new LinkedHashMap<>();
+        if (stored != null) {
+            stored.forEach(answer -> byQuestion.put(answer.getQuestionId(), answer));
+        }
+        updates.forEach(answer -> byQuestion.put(answer.getQuestionId(), answer));
+        return new ArrayList<>(byQuestion.values());
+    }
+
+    private static TestSession apply(TestSession session, Map<Long, Answer> unsaved) {
+        if (!unsaved.isEmpty()) {
+            session.setAnswers(merge(session.getAnswers(), unsaved.values()));
+        }
+        return session;
+    }
+
+    // Сначала pending под блокировкой ключа, затем flushing: перенос между ними не проскочит незамеченным
+    private Map<Long, Answer> snapshot(Long sessionId) {
+        Map<Long, Answer> newer = new LinkedHashMap<>();
+        pending.computeIfPresent(sessionId, (id, answers) -> {
+            newer.putAll(answers);
+            return answers;
+        });
+        Map<Long, Answer> copy = new LinkedHashMap<>();
+        Map<Long, Answer> inFlight = flushing.get(sessionId);
+        if (inFlight != null) {
+            copy.putAll(inFlight);
+        }
+        copy.putAll(newer);
+        return copy;
+    }
+
+    private void write(Map<Long, Map<Long, Answer>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, Collection<Answer>> delta = new HashMap<>();
+        batch.forEach((sessionId, answers) -> delta.put(sessionId, answers.values()));
+        try {
+            sessionRepository.mergeAnswers(delta);
+        } catch (Exception e) {
+            log.warn("Failed to flush answers of {} sessions, will retry", batch.size(), e);
+            // Возвращаем в буфер копией (исходную карту ещё читают через flushing),
+            // не затирая ответы, пришедшие во время записи
+            batch.forEach((sessionId, answers) -> pending.merge(sessionId, new LinkedHashMap<>(answers), (newer, older) -> {
+                older.putAll(newer);
+                return older;
+            }));
+        } finally {
+            // Только после фиксации (или возврата в pending) ответы перестают быть видны отсюда
+            batch.forEach(flushing::remove);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.testgen.session.service;
+
+import com.testgen.session.model.AnswerKey;
+import com.testgen.session.model.TestAnalytics;
+import com.testgen.session.model.TestSession;
+import com.testgen.session.model.TestStatistics;
+import com.testgen.session.repository.TestSessionRepository;
+import com.testgen.session.repository.TestStatisticsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TestAnalyticsService {
+
+    private final TestStatisticsRepository statisticsRepository;
+    private final TestSessionRepository sessionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Добавляет завершаемую сессию в статистику теста.
+     * Вызывается в транзакции finishSession: счётчики фиксируются вместе с сессией.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AnswerKey key, TestSession session) {
+        TestStatistics statistics = lock(key, session.getId());
+        statistics.add(key, session.getAnswers(), session.getScore());
+    }
+
+    /**
+     * Обычно только читает строку статистики. Если строки нет (тест проходили до появления
+     * статистики) или она от прошлой версии теста, строка один раз создаётся или обнуляется
+     * в отдельной транзакции, и следующие запросы снова только читают.
+     */
+    public TestAnalytics getAnalytics(Long testId) {
+        AnswerKey key = answerKeyCache.get(testId);
+        Optional<TestStatistics> existing = statisticsRepository.findById(testId);
+        if (existing.isPresent() && existing.get().getGeneration() == key.generation()) {
+            return existing.get().toAnalytics();
+        }
+        return transactionTemplate.execute(status -> lock(key, null).toAnalytics());
+    }
+
+    /**
+     * Блокирует строку статистики теста. Если строка только что создана, счётчики
+     * один раз восстанавливаются по уже завершённым сессиям (кроме текущей).
+     */
+    private TestStatistics lock(AnswerKey key, Long currentSessionId) {
+        boolean created = statisticsRepository.insertIfAbsent(key.testId(), key.generation()) > 0;
+        TestStatistics statistics = statisticsRepository.findForUpdate(key.testId())
+                .orElseThrow(() -> new IllegalStateException("Statistics row missing for test " + key.testId()));
+        if (created) {
+            rebuild(statistics, key, currentSessionId);
+        } else if (statistics.getGeneration() != key.generation()) {
+            // Тест перегенерирован: старые попытки относятся к другим вопросам
+            statistics.reset(key);
+        }
+        return statistics;
+    }
+
+    private void rebuild(TestStatistics statistics, AnswerKey key, Long currentSessionId) {
+        statistics.reset(key);
+        try (Stream<TestSession> sessions = sessionRepository.findByTestIdAndFinishedTrue(key.testId())) {
+            sessions.filter(session -> !session.getId().equals(currentSessionId))
+                    .forEach(session -> statistics.add(key, session.getAnswers(), session.getScore()));
+        }
+    }
+}
@@ -1,93 +1,133 @@
 package com.testgen.session.service;
 
 import com.testgen.session.model.Answer;
+import com.testgen.session.model.AnswerKey;
 import com.testgen.session.model.TestSession;
+import com.testgen.session.model.TestSessionSummary;
 import com.testgen.session.repository.TestSessionRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TestSessionService {
 
+    private static final String ACTIVE_SESSION_INDEX = "ux_test_sessions_active";
+
     private final TestSessionRepository sessionRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final TestAnalyticsService analyticsService;
 
-    public TestSession createSession(TestSession session) {
-        // Check if there's an unfinished session for the same student and test
-        List<TestSession> existingSessions = sessionRepository.findByStudentIdAndTestId(
-            session.getStudentId(), 
-            session.getTestId()
-        );
-        
-        boolean hasUnfinishedSession = existingSessions.stream()
-            .anyMatch(s -> !s.isFinished());
-            
-        if (hasUnfinishedSession) {
-            throw new IllegalStateException("Cannot create new session: there is already an unfinished session for this student and test");
-        }
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:200}")
+    private int maxLimit;
 
+    public TestSession createSession(TestSession session) {
         if (session.getAnswers() == null) {
             session.setAnswers(Collections.emptyList());
         }
-        return sessionRepository.save(session);
+        // Повторный старт отсекает частичный уникальный индекс, а не проверка перед записью
+        try {
+            return sessionRepository.saveAndFlush(session);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && ACTIVE_SESSION_INDEX.equals(violation.getConstraintName())) {
+                throw new IllegalStateException("Cannot create new session: there is already an unfinished session for this student and test");
+            }
+            throw e;
+        }
     }
 
     public TestSession getSession(Long id) {
-        return sessionRepository.findById(id)
+        return answerWriteBuffer.load(id, () -> sessionRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Session not found"));
     }
 
-    public List<TestSession> getSessionsByStudentId(Long studentId) {
-        return sessionRepository.findByStudentId(studentId);
+    // Keyset-пагинация по id: after — id последней полученной сессии
+    @Transactional(readOnly = true)
+    public void streamSessionsByStudentId(Long studentId, Long after, Integer limit, Consumer<? super TestSessionSummary> sink) {
+        try (Stream<TestSessionSummary> sessions = sessionRepository.findByStudentIdAndIdGreaterThanOrderByIdAsc(
+                studentId, cursor(after), limit(limit))) {
+            sessions.forEach(sink);
+        }
     }
 
     public List<TestSession> getSessionsByStudentIdAndTestId(Long studentId, Long testId) {
         return sessionRepository.findByStudentIdAndTestId(studentId, testId);
     }
 
-    public List<TestSession> getSessionsByTestId(Long testId) {
-        return sessionRepository.findByTestId(testId);
+    @Transactional(readOnly = true)
+    public void streamSessionsByTestId(Long testId, Long after, Integer limit, Consumer<? super TestSessionSummary> sink) {
+        try (Stream<TestSessionSummary> sessions = sessionRepository.findByTestIdAndIdGreaterThanOrderByIdAsc(
+                testId, cursor(after), limit(limit))) {
+            sessions.forEach(sink);
+        }
     }
 
     public TestSession updateSession(Long id, TestSession session) {
         TestSession existingSession = getSession(id);
+        // Полная замена списка: накопленные автосохранения больше не нужны
+        answerWriteBuffer.forget(id);
         existingSession.setAnswers(session.getAnswers());
         
-        // Calculate score
-        int correctAnswers = (int) session.getAnswers().stream()
-                .filter(answer -> answer.getIsCorrect())
-                .count();
-        int totalQuestions = session.getAnswers().size();
-        int score = (int) ((double) correctAnswers / totalQuestions * 100);
+        // Оценка по ключу ответов, isCorrect от клиента не учитывается
+        int score = answerKeyCache.get(existingSession.getTestId()).grade(session.getAnswers());
         existingSession.setScore(score);
         return sessionRepository.save(existingSession);
     }
 
+    public void saveAnswer(Long id, Answer answer) {
+        answerWriteBuffer.record(id, answer);
+    }
+
+    @Transactional
     public TestSession finishSession(Long id, List<Answer> answers) {
-        TestSession session = getSession(id);
+        // Строка блокируется до конца транзакции; сессия уже включает ещё не сброшенные автосохранения
+        TestSession session = answerWriteBuffer.load(id, () -> sessionRepository.findByIdForUpdate(id))
+                .orElseThrow(() -> new RuntimeException("Session not found"));
+        if (session.isFinished()) {
+            throw new IllegalStateException("Session already finished");
+        }
+        answerWriteBuffer.forget(id);
+        List<Answer> finalAnswers = AnswerWriteBuffer.merge(
+                session.getAnswers(), answers != null ? answers : Collections.emptyList());
         
-        // Calculate score based on correct answers
-        int correctAnswers = (int) answers.stream()
-                .filter(answer -> answer.getIsCorrect())
-                .count();
-        int totalQuestions = answers.size();
-        int score = totalQuestions > 0 ? (correctAnswers * 100) / totalQuestions : 0;
-        session.setAnswers(answers);
+        // Оценка по ключу ответов, isCorrect от клиента не учитывается
+        AnswerKey answerKey = answerKeyCache.get(session.getTestId());
+        int score = answerKey.grade(finalAnswers);
+        session.setAnswers(finalAnswers);
         session.setScore(score);
         session.setEndTime(LocalDateTime.now());
         session.setFinished(true);
+        analyticsService.record(answerKey, session);
         return sessionRepository.save(session);
     }
 
     public TestSession getCurrentSession(Long studentId, Long testId) {
-        List<TestSession> sessions = sessionRepository.findByStudentIdAndTestId(studentId, testId);
-        return sessions.stream()
-                .filter(session -> !session.isFinished())
-                .findFirst()
+        return sessionRepository.findByStudentIdAndTestIdAndFinishedFalse(studentId, testId)
+                .map(answerWriteBuffer::overlay)
                 .orElseThrow(() -> new RuntimeException("No active session found for student " + studentId + " and test " + testId));
     }
-} 
\ No newline at end of file
+
+    private Long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private Limit limit(Integer limit) {
+        return Limit.of(limit != null && limit > 0 ? Math.min(limit, maxLimit) : defaultLimit);
+    }
+}
\ No newline at end of file
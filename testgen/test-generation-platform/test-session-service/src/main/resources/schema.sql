@@ -0,0 +1,7 @@
+-- Индекс только по test_id заменён на ix_test_sessions_test_id (test_id, id); ddl-auto сам его не удалит
+DROP INDEX IF EXISTS ix_test_sessions_test;
+
+-- Не больше одной незавершённой сессии на студента и тест (JPA не умеет частичные индексы)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_test_sessions_active
+    ON test_sessions (student_id, test_id)
+    WHERE finished = false;
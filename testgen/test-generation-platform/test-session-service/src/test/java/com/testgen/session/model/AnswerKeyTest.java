@@ -0,0 +1,68 @@
+package com.testgen.session.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    // Четыре вопроса, правильные варианты 0, 1, 2, 3
+    private final AnswerKey key = new AnswerKey(1L, 2L, 3L, new int[]{0, 1, 2, 3}, 4);
+
+    @Test
+    void scoresAgainstQuestionCount() {
+        assertThat(key.grade(List.of(answer(0L, 0), answer(1L, 1)))).isEqualTo(50);
+        assertThat(key.grade(List.of(answer(0L, 0), answer(1L, 1), answer(2L, 2), answer(3L, 3)))).isEqualTo(100);
+    }
+
+    @Test
+    void setsIsCorrectFromKeyIgnoringClientValue() {
+        Answer wrong = answer(0L, 3);
+        wrong.setCorrect(true);
+        Answer right = answer(1L, 1);
+
+        key.grade(List.of(wrong, right));
+
+        assertThat(wrong.getIsCorrect()).isFalse();
+        assertThat(right.getIsCorrect()).isTrue();
+    }
+
+    @Test
+    void countsRepeatedAnswerOnce() {
+        assertThat(key.grade(List.of(answer(0L, 0), answer(0L, 0), answer(0L, 0)))).isEqualTo(25);
+    }
+
+    @Test
+    void ignoresUnknownQuestionsAndMissingOptions() {
+        Answer outOfRange = answer(4L, 0);
+        Answer negative = answer(-1L, 0);
+        Answer noQuestion = answer(null, 0);
+        Answer noOption = answer(1L, null);
+
+        assertThat(key.grade(List.of(outOfRange, negative, noQuestion, noOption))).isZero();
+        assertThat(List.of(outOfRange, negative, noQuestion, noOption)).noneMatch(Answer::getIsCorrect);
+    }
+
+    @Test
+    void unknownCorrectOptionNeverMatches() {
+        AnswerKey partial = new AnswerKey(1L, 2L, 3L, new int[]{-1, 1}, 2);
+
+        assertThat(partial.grade(List.of(answer(0L, -1), answer(1L, 1)))).isEqualTo(50);
+    }
+
+    @Test
+    void emptyKeyOrNoAnswersScoreZero() {
+        assertThat(new AnswerKey(1L, 2L, 3L, new int[0], 0).grade(List.of(answer(0L, 0)))).isZero();
+        assertThat(key.grade(null)).isZero();
+        assertThat(key.grade(List.of())).isZero();
+    }
+
+    private static Answer answer(Long questionId, Integer selectedOption) {
+        Answer answer = new Answer();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOption(selectedOption);
+        return answer;
+    }
+}
@@ -0,0 +1,130 @@
+package com.testgen.session.service;
+
+import com.testgen.session.model.Answer;
+import com.testgen.session.model.TestSession;
+import com.testgen.session.repository.TestSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerWriteBufferTest {
+
+    private static final long SESSION_ID = 7L;
+
+    private final TestSessionRepository repository = mock(TestSessionRepository.class);
+    private final AnswerWriteBuffer buffer = new AnswerWriteBuffer(repository, Duration.ofHours(1));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void mergeReplacesAnswersToSameQuestionKeepingOrder() {
+        List<Answer> merged = AnswerWriteBuffer.merge(
+                List.of(answer(1L, 0), answer(2L, 1)),
+                List.of(answer(2L, 3), answer(3L, 2)));
+
+        assertThat(merged).extracting(Answer::getQuestionId).containsExactly(1L, 2L, 3L);
+        assertThat(merged).extracting(Answer::getSelectedOption).containsExactly(0, 3, 2);
+    }
+
+    @Test
+    void mergeAcceptsMissingStoredAnswers() {
+        assertThat(AnswerWriteBuffer.merge(null, List.of(answer(1L, 0)))).hasSize(1);
+    }
+
+    @Test
+    void loadOverlaysPendingAnswers() {
+        givenOpenSession();
+        buffer.record(SESSION_ID, answer(1L, 2));
+
+        TestSession session = buffer.load(SESSION_ID, () -> Optional.of(session(answer(1L, 0), answer(2L, 1)))).orElseThrow();
+
+        assertThat(session.getAnswers()).extracting(Answer::getSelectedOption).containsExactly(2, 1);
+    }
+
+    @Test
+    void answersStayVisibleWhileFlushIsInFlight() throws Exception {
+        givenOpenSession();
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(repository).mergeAnswers(anyMap());
+        buffer.record(SESSION_ID, answer(1L, 2));
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(buffer::flushAll);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Запись ещё не зафиксирована: в базе ответа нет, но из буфера он уже ушёл
+        TestSession session = buffer.load(SESSION_ID, () -> Optional.of(session())).orElseThrow();
+        assertThat(session.getAnswers()).extracting(Answer::getSelectedOption).containsExactly(2);
+
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        TestSession afterFlush = buffer.load(SESSION_ID, () -> Optional.of(session())).orElseThrow();
+        assertThat(afterFlush.getAnswers()).isEmpty();
+    }
+
+    @Test
+    void failedFlushKeepsAnswersForRetryWithoutOverwritingNewerOnes() {
+        givenOpenSession();
+        buffer.record(SESSION_ID, answer(1L, 0));
+        buffer.record(SESSION_ID, answer(2L, 0));
+        doThrow(new IllegalStateException("db down")).when(repository).mergeAnswers(anyMap());
+        buffer.flushAll();
+
+        buffer.record(SESSION_ID, answer(2L, 3));
+        TestSession session = buffer.load(SESSION_ID, () -> Optional.of(session())).orElseThrow();
+
+        assertThat(session.getAnswers()).extracting(Answer::getSelectedOption).containsExactly(0, 3);
+        verify(repository, times(1)).mergeAnswers(anyMap());
+    }
+
+    @Test
+    void forgetDropsPendingAnswers() {
+        givenOpenSession();
+        buffer.record(SESSION_ID, answer(1L, 0));
+        buffer.forget(SESSION_ID);
+
+        assertThat(buffer.load(SESSION_ID, () -> Optional.of(session())).orElseThrow().getAnswers()).isEmpty();
+    }
+
+    private void givenOpenSession() {
+        when(repository.existsByIdAndFinishedFalse(anyLong())).thenReturn(true);
+    }
+
+    private static TestSession session(Answer... answers) {
+        TestSession session = new TestSession();
+        session.setId(SESSION_ID);
+        session.setAnswers(new ArrayList<>(List.of(answers)));
+        return session;
+    }
+
+    private static Answer answer(Long questionId, Integer selectedOption) {
+        Answer answer = new Answer();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOption(selectedOption);
+        return answer;
+    }
+}
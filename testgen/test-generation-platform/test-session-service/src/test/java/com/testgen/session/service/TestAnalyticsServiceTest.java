@@ -0,0 +1,114 @@
+package com.testgen.session.service;
+
+import com.testgen.session.model.Answer;
+import com.testgen.session.model.AnswerKey;
+import com.testgen.session.model.TestAnalytics;
+import com.testgen.session.model.TestSession;
+import com.testgen.session.model.TestStatistics;
+import com.testgen.session.repository.TestSessionRepository;
+import com.testgen.session.repository.TestStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestAnalyticsServiceTest {
+
+    private static final long TEST_ID = 5L;
+    private static final AnswerKey KEY = new AnswerKey(TEST_ID, 1L, 2L, new int[]{0, 1}, 2);
+
+    private final TestStatisticsRepository statisticsRepository = mock(TestStatisticsRepository.class);
+    private final TestSessionRepository sessionRepository = mock(TestSessionRepository.class);
+    private final AnswerKeyCache answerKeyCache = mock(AnswerKeyCache.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final TestAnalyticsService service = new TestAnalyticsService(
+            statisticsRepository, sessionRepository, answerKeyCache, transactionTemplate);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(answerKeyCache.get(TEST_ID)).thenReturn(KEY);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
+
+    @Test
+    void readsCurrentRowWithoutWriting() {
+        TestStatistics row = statistics(KEY.generation());
+        row.add(KEY, List.of(answer(0L, 0)), 50);
+        when(statisticsRepository.findById(TEST_ID)).thenReturn(Optional.of(row));
+
+        TestAnalytics analytics = service.getAnalytics(TEST_ID);
+
+        assertThat(analytics.attempts()).isEqualTo(1);
+        verify(statisticsRepository, never()).insertIfAbsent(anyLong(), anyLong());
+        verify(sessionRepository, never()).findByTestIdAndFinishedTrue(anyLong());
+    }
+
+    @Test
+    void backfillsMissingRowFromFinishedSessionsIntoStoredRow() {
+        TestStatistics created = statistics(KEY.generation());
+        when(statisticsRepository.findById(TEST_ID)).thenReturn(Optional.empty());
+        when(statisticsRepository.insertIfAbsent(TEST_ID, KEY.generation())).thenReturn(1);
+        when(statisticsRepository.findForUpdate(TEST_ID)).thenReturn(Optional.of(created));
+        when(sessionRepository.findByTestIdAndFinishedTrue(TEST_ID))
+                .thenReturn(Stream.of(session(1L, 100, answer(0L, 0), answer(1L, 1)), session(2L, 0, answer(0L, 1))));
+
+        TestAnalytics analytics = service.getAnalytics(TEST_ID);
+
+        // Счётчики посчитаны в управляемую строку, а не во временный объект
+        assertThat(created.getAttempts()).isEqualTo(2);
+        assertThat(analytics.attempts()).isEqualTo(2);
+        assertThat(analytics.averageScore()).isEqualTo(50.0);
+    }
+
+    @Test
+    void resetsRowOfPreviousGenerationWithoutRescanningSessions() {
+        TestStatistics stale = statistics(KEY.generation() - 1);
+        stale.setAttempts(3);
+        when(statisticsRepository.findById(TEST_ID)).thenReturn(Optional.of(stale));
+        when(statisticsRepository.insertIfAbsent(TEST_ID, KEY.generation())).thenReturn(0);
+        when(statisticsRepository.findForUpdate(TEST_ID)).thenReturn(Optional.of(stale));
+
+        TestAnalytics analytics = service.getAnalytics(TEST_ID);
+
+        assertThat(analytics.attempts()).isZero();
+        assertThat(stale.getGeneration()).isEqualTo(KEY.generation());
+        verify(sessionRepository, never()).findByTestIdAndFinishedTrue(anyLong());
+    }
+
+    private static TestStatistics statistics(long generation) {
+        TestStatistics statistics = new TestStatistics();
+        statistics.setTestId(TEST_ID);
+        statistics.reset(KEY);
+        statistics.setGeneration(generation);
+        return statistics;
+    }
+
+    private static TestSession session(Long id, int score, Answer... answers) {
+        TestSession session = new TestSession();
+        session.setId(id);
+        session.setScore(score);
+        session.setAnswers(List.of(answers));
+        return session;
+    }
+
+    private static Answer answer(Long questionId, Integer selectedOption) {
+        Answer answer = new Answer();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOption(selectedOption);
+        return answer;
+    }
+}